@@ -1,6 +1,7 @@
 package io.github.freya022.botcommands.api.core;
 
 import io.github.freya022.botcommands.api.commands.CommandList;
+import io.github.freya022.botcommands.api.core.config.BConfig;
 import io.github.freya022.botcommands.api.core.config.BServiceConfigBuilder;
 import io.github.freya022.botcommands.api.core.service.annotations.BService;
 import io.github.freya022.botcommands.api.core.service.annotations.InterfacedService;
@@ -22,6 +23,10 @@ import java.util.function.Predicate;
  * <b>Usage</b>: Register your instance as a service with {@link BService}
  * or {@link BServiceConfigBuilder#getServiceAnnotations() any annotation that enables your class for dependency injection}.
  *
+ * <p>
+ * <b>Caching</b>: The values used by the framework can be cached per guild, by setting {@link BConfig#getSettingsCacheDuration()},
+ * you can then invalidate the settings of a guild with {@link BContext#invalidateGuildSettings(long)} after changing them.
+ *
  * @see InterfacedService @InterfacedService
  */
 @InterfacedService(acceptMultiple = false)
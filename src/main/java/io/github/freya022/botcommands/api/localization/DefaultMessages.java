@@ -12,11 +12,11 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-import static io.github.freya022.botcommands.api.localization.Localization.Entry.entry;
-
 /**
  * Helper class to translate framework-specific messages.
  *
@@ -45,6 +45,8 @@ import static io.github.freya022.botcommands.api.localization.Localization.Entry
  */
 public final class DefaultMessages {
 	private final Localization localization;
+	// Templates with their argument names resolved, by localization path
+	private final Map<String, BoundLocalizationTemplate> boundTemplates = new ConcurrentHashMap<>();
 
 	/**
 	 * <b>THIS IS NOT A PUBLIC CONSTRUCTOR</b>
@@ -72,6 +74,11 @@ public final class DefaultMessages {
 		return template;
 	}
 
+	@NotNull
+	private BoundLocalizationTemplate getBoundLocalizationTemplate(@NotNull String path, @NotNull String argumentName) {
+		return boundTemplates.computeIfAbsent(path, p -> getLocalizationTemplate(p).bind(argumentName));
+	}
+
 	@Nullable
 	private LocalizationTemplate getLocalizationTemplateOrNull(@NotNull String path) {
         return localization.get(path);
@@ -98,7 +105,7 @@ public final class DefaultMessages {
 	 */
 	public String getUserPermErrorMsg(Set<Permission> permissions) {
 		final String localizedPermissions = permissions.stream().map(this::getPermission).collect(Collectors.joining(", "));
-		return getLocalizationTemplate("user.perm.error.message").localize(entry("permissions", localizedPermissions));
+		return getBoundLocalizationTemplate("user.perm.error.message", "permissions").localize(localizedPermissions);
 	}
 
 	/**
@@ -106,7 +113,7 @@ public final class DefaultMessages {
 	 */
 	public String getBotPermErrorMsg(Set<Permission> permissions) {
 		final String localizedPermissions = permissions.stream().map(this::getPermission).collect(Collectors.joining(", "));
-		return getLocalizationTemplate("bot.perm.error.message").localize(entry("permissions", localizedPermissions));
+		return getBoundLocalizationTemplate("bot.perm.error.message", "permissions").localize(localizedPermissions);
 	}
 
 	/**
@@ -120,21 +127,21 @@ public final class DefaultMessages {
 	 * @return Message to display when the command is on per-user rate limit
 	 */
 	public String getUserRateLimitMsg(Timestamp timestamp) {
-		return getLocalizationTemplate("user.rate_limit.message").localize(entry("delay", timestamp));
+		return getBoundLocalizationTemplate("user.rate_limit.message", "delay").localize(timestamp);
 	}
 
 	/**
 	 * @return Message to display when the command is on per-channel rate limit
 	 */
 	public String getChannelRateLimitMsg(Timestamp timestamp) {
-		return getLocalizationTemplate("channel.rate_limit.message").localize(entry("delay", timestamp));
+		return getBoundLocalizationTemplate("channel.rate_limit.message", "delay").localize(timestamp);
 	}
 
 	/**
 	 * @return Message to display when the command is on per-guild rate limit
 	 */
 	public String getGuildRateLimitMsg(Timestamp timestamp) {
-		return getLocalizationTemplate("guild.rate_limit.message").localize(entry("delay", timestamp));
+		return getBoundLocalizationTemplate("guild.rate_limit.message", "delay").localize(timestamp);
 	}
 
 	/**
@@ -148,7 +155,7 @@ public final class DefaultMessages {
 	 * @return Message to display when the command is not found
 	 */
 	public String getCommandNotFoundMsg(String suggestions) {
-		return getLocalizationTemplate("command.not.found.message").localize(entry("suggestions", suggestions));
+		return getBoundLocalizationTemplate("command.not.found.message", "suggestions").localize(suggestions);
 	}
 
 	/**
@@ -162,7 +169,7 @@ public final class DefaultMessages {
 	 * @return Message to display when a channel parameter could not be resolved
 	 */
 	public String getResolverChannelMissingAccessMsg(String channelMention) {
-		return getLocalizationTemplate("resolver.channel.missing_access.message").localize(entry("channel_mention", channelMention));
+		return getBoundLocalizationTemplate("resolver.channel.missing_access.message", "channel_mention").localize(channelMention);
 	}
 
 	/**
@@ -176,9 +183,7 @@ public final class DefaultMessages {
 	 * @return Message to display when a slash command option is unresolvable (only in slash command interactions)
 	 */
 	public String getSlashCommandUnresolvableOptionMsg(String parameterName) {
-		return getLocalizationTemplate("slash.command.unresolvable.option.message").localize(
-				entry("optionName", parameterName)
-		);
+		return getBoundLocalizationTemplate("slash.command.unresolvable.option.message", "optionName").localize(parameterName);
 	}
 
 	/**
@@ -2,11 +2,19 @@ package io.github.freya022.botcommands.api.commands.application.slash.autocomple
 
 import info.debatty.java.stringsimilarity.NGram
 import net.dv8tion.jda.api.interactions.commands.build.OptionData
+import java.util.*
+import java.util.stream.IntStream
+import kotlin.math.abs
+import kotlin.math.max
+import kotlin.math.min
 
 object AutocompleteAlgorithms {
     private val biGram = NGram(2)
     private val triGram = NGram(3)
 
+    // Item count above which items are scored in parallel, when enabled
+    private const val PARALLEL_THRESHOLD = 20_000
+
     /**
      * Sorts the item with fuzzing matching, the [OptionData.MAX_CHOICES] most relevant results should appear at the top
      *
@@ -19,21 +27,50 @@ object AutocompleteAlgorithms {
      * @return A collection of extract results with the scores of each item
      */
     @JvmStatic
-    fun <T> fuzzyMatching(items: Collection<T>, toStringFunction: ToStringFunction<T>, query: String): Collection<FuzzyResult<T>> {
-        val list = sortedSetOf<FuzzyResult<T>>()
-        items.forEach {
-            val str = toStringFunction.toString(it)
-            val algo = when {
-                str.length < 3 || query.length < 3 -> biGram
-                else -> triGram
-            }
+    fun <T> fuzzyMatching(items: Collection<T>, toStringFunction: ToStringFunction<T>, query: String): Collection<FuzzyResult<T>> =
+        fuzzyMatching(items, toStringFunction, query, items.size)
 
-            val distance = algo.distance(str, query)
-            list += FuzzyResult(it, str, distance)
-        }
+    /**
+     * Returns the [maxResults] most relevant items using fuzzy matching, the most relevant results appear first.
+     *
+     * Items with the same score are sorted by their string, then by their order in [items].
+     *
+     * This algorithm is the same as [fuzzyMatchingWithContinuity], except it doesn't check for a prefix
+     *
+     * @param items            The items to match
+     * @param toStringFunction The function to transform an item into a String
+     * @param query            The query to match items against
+     * @param maxResults       The maximum number of results to return, usually [OptionData.MAX_CHOICES]
+     *
+     * @return A list of extract results with the scores of each item
+     */
+    @JvmStatic
+    fun <T> fuzzyMatching(items: Collection<T>, toStringFunction: ToStringFunction<T>, query: String, maxResults: Int): List<FuzzyResult<T>> =
+        fuzzyMatching(items, toStringFunction, query, maxResults, parallel = false)
 
-        return list
-    }
+    /**
+     * Returns the [maxResults] most relevant items using fuzzy matching, the most relevant results appear first.
+     *
+     * Items with the same score are sorted by their string, then by their order in [items].
+     *
+     * This algorithm is the same as [fuzzyMatchingWithContinuity], except it doesn't check for a prefix
+     *
+     * @param items            The items to match
+     * @param toStringFunction The function to transform an item into a String, must be thread-safe if [parallel] is enabled
+     * @param query            The query to match items against
+     * @param maxResults       The maximum number of results to return, usually [OptionData.MAX_CHOICES]
+     * @param parallel         Whether large collections are scored in parallel, on the common fork-join pool
+     *
+     * @return A list of extract results with the scores of each item
+     */
+    @JvmStatic
+    fun <T> fuzzyMatching(
+        items: Collection<T>,
+        toStringFunction: ToStringFunction<T>,
+        query: String,
+        maxResults: Int,
+        parallel: Boolean
+    ): List<FuzzyResult<T>> = topMatches(items, toStringFunction, query, maxResults, requirePrefix = false, parallel)
 
     /**
      * Sorts the item with fuzzing matching, the [OptionData.MAX_CHOICES] most relevant results should appear at the top
@@ -52,21 +89,145 @@ object AutocompleteAlgorithms {
         items: Collection<T>,
         toStringFunction: ToStringFunction<T>,
         query: String
-    ): Collection<FuzzyResult<T>> {
-        val list = sortedSetOf<FuzzyResult<T>>()
-        items.forEach {
-            val str = toStringFunction.toString(it)
-            if (!str.startsWith(query, ignoreCase = true)) return@forEach
+    ): Collection<FuzzyResult<T>> = fuzzyMatchingWithContinuity(items, toStringFunction, query, items.size)
+
+    /**
+     * Returns the [maxResults] most relevant items using fuzzy matching, the most relevant results appear first.
+     *
+     * Items with the same score are sorted by their string, then by their order in [items].
+     *
+     * Additionally, this removes items which do not start with the query string
+     *
+     * @param items            The items to match
+     * @param toStringFunction The function to transform an item into a String
+     * @param query            The query to match items against
+     * @param maxResults       The maximum number of results to return, usually [OptionData.MAX_CHOICES]
+     * @param <T>              Type of the items
+     *
+     * @return A list of extract results with the scores of each item
+     */
+    @JvmStatic
+    fun <T> fuzzyMatchingWithContinuity(
+        items: Collection<T>,
+        toStringFunction: ToStringFunction<T>,
+        query: String,
+        maxResults: Int
+    ): List<FuzzyResult<T>> = fuzzyMatchingWithContinuity(items, toStringFunction, query, maxResults, parallel = false)
+
+    /**
+     * Returns the [maxResults] most relevant items using fuzzy matching, the most relevant results appear first.
+     *
+     * Items with the same score are sorted by their string, then by their order in [items].
+     *
+     * Additionally, this removes items which do not start with the query string
+     *
+     * @param items            The items to match
+     * @param toStringFunction The function to transform an item into a String, must be thread-safe if [parallel] is enabled
+     * @param query            The query to match items against
+     * @param maxResults       The maximum number of results to return, usually [OptionData.MAX_CHOICES]
+     * @param parallel         Whether large collections are scored in parallel, on the common fork-join pool
+     * @param <T>              Type of the items
+     *
+     * @return A list of extract results with the scores of each item
+     */
+    @JvmStatic
+    fun <T> fuzzyMatchingWithContinuity(
+        items: Collection<T>,
+        toStringFunction: ToStringFunction<T>,
+        query: String,
+        maxResults: Int,
+        parallel: Boolean
+    ): List<FuzzyResult<T>> = topMatches(items, toStringFunction, query, maxResults, requirePrefix = true, parallel)
+
+    private fun <T> topMatches(
+        items: Collection<T>,
+        toStringFunction: ToStringFunction<T>,
+        query: String,
+        maxResults: Int,
+        requirePrefix: Boolean,
+        parallel: Boolean
+    ): List<FuzzyResult<T>> {
+        require(maxResults >= 0) { "Max results must be positive or zero" }
+        if (maxResults == 0 || items.isEmpty()) return emptyList()
+
+        if (!parallel || items.size < PARALLEL_THRESHOLD) {
+            val topMatches = TopMatches<T>(maxResults)
+            items.forEachIndexed { index, item ->
+                topMatches.offer(item, index, toStringFunction, query, requirePrefix)
+            }
+            return topMatches.toSortedList()
+        }
+
+        // Each worker keeps its own top matches, which are then merged
+        val itemList = items as? List<T> ?: items.toList()
+        return IntStream.range(0, itemList.size).parallel().collect(
+            { TopMatches<T>(maxResults) },
+            { topMatches, index -> topMatches.offer(itemList[index], index, toStringFunction, query, requirePrefix) },
+            TopMatches<T>::addAll
+        ).toSortedList()
+    }
+
+    private class Match<T>(val result: FuzzyResult<T>, val index: Int)
+
+    /**
+     * Keeps the [maxResults] best matches in a heap, where the worst kept match is at the top,
+     * so items are only kept if they are better than it.
+     */
+    private class TopMatches<T>(private val maxResults: Int) {
+        private val heap = PriorityQueue<Match<T>>(min(maxResults, 64), bestFirst.reversed())
+
+        fun offer(item: T, index: Int, toStringFunction: ToStringFunction<T>, query: String, requirePrefix: Boolean) {
+            val str = toStringFunction.toString(item)
+            if (requirePrefix && !str.startsWith(query, ignoreCase = true)) return
 
             val algo = when {
                 str.length < 3 || query.length < 3 -> biGram
                 else -> triGram
             }
 
-            val distance = algo.distance(str, query)
-            list += FuzzyResult(it, str, distance)
+            if (heap.size == maxResults && getMinimumDistance(algo, str, query) > heap.peek().result.distance) return
+
+            add(Match(FuzzyResult(item, str, algo.distance(str, query)), index))
         }
 
-        return list
+        fun addAll(other: TopMatches<T>) {
+            other.heap.forEach(::add)
+        }
+
+        private fun add(match: Match<T>) {
+            if (heap.size < maxResults) {
+                heap.add(match)
+            } else if (bestFirst.compare(match, heap.peek()) < 0) {
+                heap.poll()
+                heap.add(match)
+            }
+        }
+
+        fun toSortedList(): List<FuzzyResult<T>> = heap.sortedWith(bestFirst).map { it.result }
+
+        companion object {
+            private val bestFirst: Comparator<Match<*>> = Comparator { o1, o2 ->
+                val distanceCompare = o1.result.distance.compareTo(o2.result.distance)
+                if (distanceCompare != 0) return@Comparator distanceCompare
+
+                val strCompare = o1.result.string.compareTo(o2.result.string)
+                if (strCompare != 0) return@Comparator strCompare
+
+                o1.index.compareTo(o2.index)
+            }
+
+            /**
+             * Lower bound of the [NGram] distance, computed without comparing the strings.
+             *
+             * When both strings are at least as long as the n-gram size,
+             * each character without a counterpart costs one, so the length difference is always paid.
+             */
+            private fun getMinimumDistance(algo: NGram, str: String, query: String): Double {
+                val minLength = if (algo === biGram) 2 else 3
+                if (str.length < minLength || query.length < minLength) return 0.0
+
+                return abs(str.length - query.length).toDouble() / max(str.length, query.length)
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package io.github.freya022.botcommands.api.commands.application.slash.autocomple
 
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.builder.AutocompleteCacheInfoBuilder
 import io.github.freya022.botcommands.internal.utils.toDiscordString
+import kotlin.time.Duration
 
 class AutocompleteCacheInfo internal constructor(builder: AutocompleteCacheInfoBuilder) {
     val force: Boolean = builder.forceCache
@@ -11,6 +12,7 @@ class AutocompleteCacheInfo internal constructor(builder: AutocompleteCacheInfoB
     val guildLocal: Boolean = builder.guildLocal
     val userLocal: Boolean = builder.userLocal
     val channelLocal: Boolean = builder.channelLocal
+    val refreshAfter: Duration? = builder.refreshAfter
 
     override fun equals(other: Any?): Boolean {
         if (this === other) return true
@@ -25,6 +27,7 @@ class AutocompleteCacheInfo internal constructor(builder: AutocompleteCacheInfoB
         if (guildLocal != other.guildLocal) return false
         if (userLocal != other.userLocal) return false
         if (channelLocal != other.channelLocal) return false
+        if (refreshAfter != other.refreshAfter) return false
 
         return true
     }
@@ -37,6 +40,7 @@ class AutocompleteCacheInfo internal constructor(builder: AutocompleteCacheInfoB
         result = 31 * result + guildLocal.hashCode()
         result = 31 * result + userLocal.hashCode()
         result = 31 * result + channelLocal.hashCode()
+        result = 31 * result + refreshAfter.hashCode()
         return result
     }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ abstract class AutocompleteInfo internal constructor() : IDeclarationSiteHolder
     abstract val function: KFunction<*>
     abstract val mode: AutocompleteMode
     abstract val showUserInput: Boolean
+    abstract val staticItems: Boolean
     abstract val autocompleteCache: AutocompleteCacheInfo?
 
     abstract fun invalidate()
@@ -3,6 +3,7 @@ package io.github.freya022.botcommands.api.commands.application.slash.autocomple
 import io.github.freya022.botcommands.api.commands.annotations.Command
 import io.github.freya022.botcommands.api.commands.application.slash.annotations.JDASlashCommand
 import io.github.freya022.botcommands.api.commands.application.slash.annotations.SlashOption
+import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteInfo
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteMode
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteTransformer
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.builder.AutocompleteInfoBuilder
@@ -83,5 +84,21 @@ annotation class AutocompleteHandler(
      *
      * @see AutocompleteInfoBuilder.showUserInput DSL equivalent
      */
-    val showUserInput: Boolean = false
+    val showUserInput: Boolean = false,
+
+    /**
+     * Whether the autocomplete function always returns the same items.
+     *
+     * When enabled, the items returned by the first call are indexed,
+     * and the function is no longer called until the autocomplete is [invalidated][AutocompleteInfo.invalidate].
+     * Queries are then answered from the index, without comparing the query to every item.
+     *
+     * **This is only usable on collection return types of String, Double and Long,**
+     * **and on functions with no parameters other than the event**
+     *
+     * **Default:** `false`
+     *
+     * @see AutocompleteInfoBuilder.staticItems DSL equivalent
+     */
+    val staticItems: Boolean = false
 )
@@ -8,6 +8,7 @@ import io.github.freya022.botcommands.api.core.config.BConfigBuilder
 import net.dv8tion.jda.api.entities.Guild
 import net.dv8tion.jda.api.entities.User
 import net.dv8tion.jda.api.entities.channel.Channel
+import java.time.temporal.ChronoUnit
 
 /**
  * Enables autocomplete caching.
@@ -93,5 +94,22 @@ annotation class CacheAutocomplete(
      *
      * @see AutocompleteCacheInfoBuilder.channelLocal
      */
-    val channelLocal: Boolean = false
+    val channelLocal: Boolean = false,
+
+    /**
+     * How long after being computed should an entry be refreshed in the background, [in the specified unit][refreshAfterUnit].
+     *
+     * The entry is only refreshed when it is being used, and keeps being returned until the refreshed choices are computed,
+     * which avoids having frequently used keys being recomputed while users are waiting.
+     *
+     * **Note:** Entries are never refreshed if this is `0`.
+     *
+     * @see AutocompleteCacheInfoBuilder.refreshAfter
+     */
+    val refreshAfter: Long = 0,
+
+    /**
+     * The time unit of [refreshAfter]
+     */
+    val refreshAfterUnit: ChronoUnit = ChronoUnit.SECONDS
 )
@@ -6,6 +6,7 @@ import io.github.freya022.botcommands.api.commands.application.slash.autocomplet
 import io.github.freya022.botcommands.api.core.config.BConfig
 import io.github.freya022.botcommands.api.core.config.BConfigBuilder
 import io.github.freya022.botcommands.internal.commands.CommandDSL
+import kotlin.time.Duration
 
 @CommandDSL
 class AutocompleteCacheInfoBuilder internal constructor(val cacheMode: AutocompleteCacheMode) {
@@ -45,4 +46,18 @@ class AutocompleteCacheInfoBuilder internal constructor(val cacheMode: Autocompl
      * @see CacheAutocomplete.channelLocal
      */
     var channelLocal: Boolean = false
+
+    /**
+     * How long after being computed should an entry be refreshed in the background, `null` to never refresh.
+     *
+     * The entry is only refreshed when it is being used, and keeps being returned until the refreshed choices are computed,
+     * which avoids having frequently used keys being recomputed while users are waiting.
+     *
+     * @see CacheAutocomplete.refreshAfter
+     */
+    var refreshAfter: Duration? = null
+        set(value) {
+            require(value == null || value.isPositive()) { "Refresh duration must be positive" }
+            field = value
+        }
 }
@@ -2,6 +2,7 @@ package io.github.freya022.botcommands.api.commands.application.slash.autocomple
 
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteCacheInfo
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteCacheMode
+import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteInfo
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteMode
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.annotations.AutocompleteHandler
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.annotations.CacheAutocomplete
@@ -40,6 +41,22 @@ class AutocompleteInfoBuilder internal constructor(
      */
     var showUserInput: Boolean = false
 
+    /**
+     * Whether the autocomplete function always returns the same items.
+     *
+     * When enabled, the items returned by the first call are indexed,
+     * and the function is no longer called until the autocomplete is [invalidated][AutocompleteInfo.invalidate].
+     * Queries are then answered from the index, without comparing the query to every item.
+     *
+     * **This is only usable on collection return types of String, Double and Long,**
+     * **and on functions with no parameters other than the event**
+     *
+     * **Default:** `false`
+     *
+     * @see AutocompleteHandler.staticItems
+     */
+    var staticItems: Boolean = false
+
     internal var autocompleteCache: AutocompleteCacheInfo? = null
         private set
 
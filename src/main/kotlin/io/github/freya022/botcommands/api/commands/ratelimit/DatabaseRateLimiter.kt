@@ -0,0 +1,41 @@
+package io.github.freya022.botcommands.api.commands.ratelimit
+
+import io.github.bucket4j.ConsumptionProbe
+import io.github.freya022.botcommands.api.commands.ratelimit.bucket.BucketAccessor
+import io.github.freya022.botcommands.api.commands.ratelimit.bucket.BucketFactory
+import io.github.freya022.botcommands.api.commands.ratelimit.bucket.DatabaseBucketAccessor
+import io.github.freya022.botcommands.api.commands.ratelimit.handler.DefaultRateLimitHandler
+import io.github.freya022.botcommands.api.commands.ratelimit.handler.RateLimitHandler
+import kotlin.time.Duration
+
+/**
+ * [RateLimiter] implementation storing its buckets in the database,
+ * based on [DefaultRateLimitHandler] and [DatabaseBucketAccessor].
+ *
+ * **Note:** The rate limit message won't be deleted in a private channel,
+ * or if the [refill delay][ConsumptionProbe.nanosToWaitForRefill] is longer than 10 minutes.
+ *
+ * @param groupName      Unique name of the rate limiter, used to identify its buckets in the database.
+ * @param scope          Scope of the rate limit, see [RateLimitScope] values.
+ * @param deleteOnRefill Whether the rate limit message should be deleted after the [refill delay][ConsumptionProbe.nanosToWaitForRefill].
+ * @param maxStaleness   How long can tokens be consumed locally before being synchronized with the database,
+ *                       see [DatabaseBucketAccessor].
+ *
+ * @see DefaultRateLimitHandler
+ * @see DatabaseBucketAccessor
+ * @see RateLimitScope
+ */
+class DatabaseRateLimiter(
+    val groupName: String,
+    val scope: RateLimitScope,
+    private val bucketFactory: BucketFactory,
+    private val deleteOnRefill: Boolean = true,
+    private val maxStaleness: Duration = Duration.ZERO
+) : RateLimiter,
+    RateLimitHandler by DefaultRateLimitHandler(scope, deleteOnRefill),
+    BucketAccessor by DatabaseBucketAccessor(groupName, scope, bucketFactory, maxStaleness) {
+
+    override fun toString(): String {
+        return "DatabaseRateLimiter(groupName='$groupName', scope=$scope, maxStaleness=$maxStaleness)"
+    }
+}
@@ -1,10 +1,15 @@
 package io.github.freya022.botcommands.api.commands.ratelimit
 
 import io.github.bucket4j.ConsumptionProbe
+import io.github.freya022.botcommands.api.commands.ratelimit.RateLimiter.Companion.databaseFactory
 import io.github.freya022.botcommands.api.commands.ratelimit.RateLimiter.Companion.defaultFactory
 import io.github.freya022.botcommands.api.commands.ratelimit.bucket.BucketAccessor
+import io.github.freya022.botcommands.api.commands.ratelimit.bucket.DatabaseBucketAccessor
 import io.github.freya022.botcommands.api.commands.ratelimit.handler.RateLimitHandler
 import io.github.freya022.botcommands.internal.commands.AbstractCommandInfo
+import kotlin.time.Duration
+import kotlin.time.toKotlinDuration
+import java.time.Duration as JavaDuration
 
 /**
  * Retrieves rate limit buckets and handles rate limits by combining [BucketAccessor] and [RateLimitHandler].
@@ -17,6 +22,7 @@ import io.github.freya022.botcommands.internal.commands.AbstractCommandInfo
  *
  * @see DefaultRateLimiter
  * @see defaultFactory
+ * @see databaseFactory
  */
 interface RateLimiter : BucketAccessor, RateLimitHandler {
     companion object {
@@ -28,5 +34,37 @@ interface RateLimiter : BucketAccessor, RateLimitHandler {
          */
         @JvmStatic
         fun defaultFactory(scope: RateLimitScope, deleteOnRefill: Boolean = true): RateLimiterFactory = RateLimiterFactory { DefaultRateLimiter(scope, it, deleteOnRefill) }
+
+        /**
+         * Creates rate limiters storing their buckets in the database, shared by all instances using the same database.
+         *
+         * @param groupName      Unique name of the rate limiter, used to identify its buckets in the database.
+         * @param scope          Scope of the rate limit, see [RateLimitScope] values.
+         * @param deleteOnRefill Whether the rate limit message should be deleted after the [refill delay][ConsumptionProbe.nanosToWaitForRefill].
+         * @param maxStaleness   How long can tokens be consumed locally before being synchronized with the database,
+         *                       see [DatabaseBucketAccessor].
+         *
+         * @see DatabaseRateLimiter
+         * @see RateLimitScope
+         */
+        @JvmSynthetic
+        fun databaseFactory(groupName: String, scope: RateLimitScope, deleteOnRefill: Boolean = true, maxStaleness: Duration = Duration.ZERO): RateLimiterFactory =
+            RateLimiterFactory { DatabaseRateLimiter(groupName, scope, it, deleteOnRefill, maxStaleness) }
+
+        /**
+         * Creates rate limiters storing their buckets in the database, shared by all instances using the same database.
+         *
+         * @param groupName      Unique name of the rate limiter, used to identify its buckets in the database.
+         * @param scope          Scope of the rate limit, see [RateLimitScope] values.
+         * @param deleteOnRefill Whether the rate limit message should be deleted after the [refill delay][ConsumptionProbe.nanosToWaitForRefill].
+         * @param maxStaleness   How long can tokens be consumed locally before being synchronized with the database,
+         *                       see [DatabaseBucketAccessor].
+         *
+         * @see DatabaseRateLimiter
+         * @see RateLimitScope
+         */
+        @JvmStatic
+        fun databaseFactory(groupName: String, scope: RateLimitScope, deleteOnRefill: Boolean, maxStaleness: JavaDuration): RateLimiterFactory =
+            databaseFactory(groupName, scope, deleteOnRefill, maxStaleness.toKotlinDuration())
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package io.github.freya022.botcommands.api.commands.ratelimit.bucket
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import io.github.bucket4j.Bucket
+import io.github.bucket4j.BucketConfiguration
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations
+import io.github.freya022.botcommands.api.commands.ratelimit.CancellableRateLimit
+import io.github.freya022.botcommands.api.commands.ratelimit.DatabaseRateLimiter
+import io.github.freya022.botcommands.api.commands.ratelimit.RateLimitScope
+import io.github.freya022.botcommands.api.core.BContext
+import io.github.freya022.botcommands.api.core.db.Database
+import io.github.freya022.botcommands.api.core.service.getService
+import io.github.freya022.botcommands.internal.commands.application.ApplicationCommandInfo
+import io.github.freya022.botcommands.internal.commands.ratelimit.DatabaseBucketProxyManager
+import io.github.freya022.botcommands.internal.commands.ratelimit.RateLimitKey
+import io.github.freya022.botcommands.internal.commands.ratelimit.getRefillDuration
+import io.github.freya022.botcommands.internal.commands.ratelimit.toRateLimitKey
+import io.github.freya022.botcommands.internal.commands.text.TextCommandInfo
+import io.github.freya022.botcommands.internal.core.db.InternalDatabase
+import kotlinx.coroutines.Dispatchers
+import net.dv8tion.jda.api.events.interaction.command.GenericCommandInteractionEvent
+import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent
+import kotlin.time.Duration
+import kotlin.time.toJavaDuration
+import kotlin.time.toKotlinDuration
+import java.time.Duration as JavaDuration
+
+/**
+ * [BucketAccessor] implementation based on [rate limit scopes][RateLimitScope],
+ * storing the buckets in the database, so rate limits are shared across all instances using the same database.
+ *
+ * The [Database] service is required, and the buckets are stored in the `bc` schema,
+ * alongside the other tables created by the migration scripts.
+ *
+ * ### Near cache
+ * Each bucket access locks a row in the database by default,
+ * which you may want to avoid if buckets are used frequently.
+ *
+ * Setting [maxStaleness] allows consuming tokens locally, and synchronizing them with the database later,
+ * when either the staleness or the capacity of the smallest limit is exceeded.
+ * Instances may then, in total, consume slightly more tokens than the limits allow.
+ *
+ * ### Expiration
+ * Buckets are deleted from the database once they would be entirely refilled.
+ *
+ * **Note:** Buckets are consumed on [Dispatchers.IO] by the framework,
+ * as [Bucket] operations block while the database is being used.
+ * [CancellableRateLimit.cancelRateLimit] is also blocking, when called from your own code.
+ *
+ * **Note:** The rate limit scopes using guilds or channels are limited to guild-only events,
+ * a user rate limit is applied if the limitation is violated.
+ *
+ * @param groupName     Unique name of the rate limiter, used to identify its buckets in the database
+ * @param scope         Scope of the rate limit, see [RateLimitScope] values
+ * @param bucketFactory Factory of the buckets, used to get the limits of the buckets
+ * @param maxStaleness  How long can tokens be consumed locally before being synchronized with the database,
+ *                      a duration of zero disables the near cache
+ *
+ * @see DatabaseRateLimiter
+ * @see DefaultBucketAccessor
+ */
+class DatabaseBucketAccessor(
+    private val groupName: String,
+    private val scope: RateLimitScope,
+    private val bucketFactory: BucketFactory,
+    private val maxStaleness: Duration = Duration.ZERO
+) : BucketAccessor {
+    constructor(groupName: String, scope: RateLimitScope, bucketFactory: BucketFactory) :
+            this(groupName, scope, bucketFactory, Duration.ZERO)
+
+    constructor(groupName: String, scope: RateLimitScope, bucketFactory: BucketFactory, maxStaleness: JavaDuration) :
+            this(groupName, scope, bucketFactory, maxStaleness.toKotlinDuration())
+
+    init {
+        require(!maxStaleness.isNegative()) { "Max staleness must not be negative" }
+    }
+
+    private val configuration: BucketConfiguration = bucketFactory.createBucket().asVerbose().availableTokens.configuration
+
+    private val refillDuration: JavaDuration = bucketFactory.getRefillDuration()
+    // Keeps the proxies, and their unsynchronized tokens, until the bucket would be entirely refilled
+    private val buckets: Cache<RateLimitKey, Bucket> = Caffeine.newBuilder()
+        .expireAfterAccess(refillDuration)
+        .build()
+
+    @Volatile
+    private var proxyManager: DatabaseBucketProxyManager? = null
+
+    override suspend fun getBucket(context: BContext, event: MessageReceivedEvent, commandInfo: TextCommandInfo): Bucket {
+        return getBucket(context, event.toRateLimitKey(scope))
+    }
+
+    override suspend fun getBucket(context: BContext, event: GenericCommandInteractionEvent, commandInfo: ApplicationCommandInfo): Bucket {
+        return getBucket(context, event.toRateLimitKey(scope))
+    }
+
+    override suspend fun getBucket(context: BContext, event: GenericComponentInteractionCreateEvent): Bucket {
+        return getBucket(context, event.toRateLimitKey(scope))
+    }
+
+    private fun getBucket(context: BContext, key: RateLimitKey): Bucket = buckets.get(key) {
+        var builder = getProxyManager(context).builder()
+        if (maxStaleness.isPositive()) {
+            val maxUnsynchronizedTokens = configuration.bandwidths.minOf { it.capacity }
+            builder = builder.withOptimization(Optimizations.delaying(DelayParameters(maxUnsynchronizedTokens, maxStaleness.toJavaDuration())))
+        }
+        builder.build(key, configuration)
+    }
+
+    private fun getProxyManager(context: BContext): DatabaseBucketProxyManager {
+        proxyManager?.let { return it }
+        return synchronized(this) {
+            proxyManager ?: DatabaseBucketProxyManager(context.getService<InternalDatabase>(), groupName, refillDuration).also { proxyManager = it }
+        }
+    }
+}
@@ -28,7 +28,7 @@ abstract class AbstractComponentFactory internal constructor(internal val compon
                     false
                 }
             }
-            .map { ComponentController.parseComponentId(it) }
+            .mapNotNull { ComponentController.parseComponentId(it) }
 
         componentController.deleteComponentsById(parsedIds, throwTimeouts = false)
     }
@@ -1,15 +1,17 @@
 package io.github.freya022.botcommands.api.components
 
 import io.github.freya022.botcommands.api.components.annotations.RequiresComponents
+import io.github.freya022.botcommands.api.components.builder.button.AbstractButtonBuilder
 import io.github.freya022.botcommands.api.components.builder.button.ButtonFactory
 import io.github.freya022.botcommands.api.components.utils.ButtonContent
 import io.github.freya022.botcommands.api.core.service.annotations.BService
 import io.github.freya022.botcommands.api.utils.EmojiUtils
 import io.github.freya022.botcommands.internal.components.controller.ComponentController
+import kotlinx.coroutines.runBlocking
 import net.dv8tion.jda.api.entities.emoji.Emoji
-import net.dv8tion.jda.api.interactions.components.buttons.Button
 import net.dv8tion.jda.api.interactions.components.buttons.ButtonStyle
 import javax.annotation.CheckReturnValue
+import net.dv8tion.jda.api.interactions.components.buttons.Button as JDAButton
 
 /**
  * Factory for buttons, see [Components] for more details.
@@ -370,8 +372,8 @@ class Buttons internal constructor(componentController: ComponentController) : A
      * @throws IllegalArgumentException If the url/label is empty
      */
     @CheckReturnValue
-    fun link(url: String, label: String): Button =
-        Button.link(url, label)
+    fun link(url: String, label: String): JDAButton =
+        JDAButton.link(url, label)
 
     /**
      * Creates a danger button factory with the emoji provided.
@@ -383,8 +385,8 @@ class Buttons internal constructor(componentController: ComponentController) : A
      * @see EmojiUtils.resolveJDAEmoji
      */
     @CheckReturnValue
-    fun link(url: String, emoji: Emoji): Button =
-        Button.link(url, emoji)
+    fun link(url: String, emoji: Emoji): JDAButton =
+        JDAButton.link(url, emoji)
 
     /**
      * Creates a danger button factory with the emoji provided.
@@ -396,6 +398,44 @@ class Buttons internal constructor(componentController: ComponentController) : A
      * @see EmojiUtils.resolveJDAEmoji
      */
     @CheckReturnValue
-    fun link(url: String, label: String, emoji: Emoji): Button =
-        Button.link(url, label).withEmoji(emoji)
-}
\ No newline at end of file
+    fun link(url: String, label: String, emoji: Emoji): JDAButton =
+        JDAButton.link(url, label).withEmoji(emoji)
+
+    /**
+     * Builds all the provided button builders at once.
+     *
+     * This is faster than building each button separately,
+     * as all the buttons are created in a single database transaction.
+     *
+     * **Note:** Groups of these buttons are still created in a separate transaction,
+     * and select menus can only be built one by one.
+     *
+     * @throws IllegalStateException If one of the builders has already been built
+     *
+     * @return The built buttons, in the same order as the [builders]
+     */
+    @JvmName("buildAll")
+    fun buildAllJava(builders: Collection<AbstractButtonBuilder<*>>): List<Button> = runBlocking { buildAll(builders) }
+
+    /**
+     * Builds all the provided button builders at once.
+     *
+     * This is faster than building each button separately,
+     * as all the buttons are created in a single database transaction.
+     *
+     * **Note:** Groups of these buttons are still created in a separate transaction,
+     * and select menus can only be built one by one.
+     *
+     * @throws IllegalStateException If one of the builders has already been built
+     *
+     * @return The built buttons, in the same order as the [builders]
+     */
+    @JvmSynthetic
+    suspend fun buildAll(builders: Collection<AbstractButtonBuilder<*>>): List<Button> {
+        builders.forEach { it.markBuilt() }
+
+        return componentController.withNewComponents(builders.toList()) { builder, internalId, componentId ->
+            builder.createButton(internalId, componentId)
+        }
+    }
+}
@@ -11,7 +11,9 @@ import io.github.freya022.botcommands.api.components.builder.select.ephemeral.Ep
 import io.github.freya022.botcommands.api.components.builder.select.ephemeral.EphemeralStringSelectBuilder
 import io.github.freya022.botcommands.api.components.builder.select.persistent.PersistentEntitySelectBuilder
 import io.github.freya022.botcommands.api.components.builder.select.persistent.PersistentStringSelectBuilder
+import io.github.freya022.botcommands.api.components.data.ComponentCacheStats
 import io.github.freya022.botcommands.api.components.utils.ButtonContent
+import io.github.freya022.botcommands.api.core.config.BComponentsConfig
 import io.github.freya022.botcommands.api.core.service.annotations.BService
 import io.github.freya022.botcommands.api.core.utils.enumSetOf
 import io.github.freya022.botcommands.internal.components.builder.InstanceRetriever
@@ -57,6 +59,9 @@ import java.time.Duration as JavaDuration
  * **Note:** Component groups cannot contain components with timeouts,
  * you will need to [disable the timeout on the components][ITimeoutableComponent.noTimeout].
  *
+ * **Note:** Groups are created in their own transaction, after their components were built,
+ * [Buttons.buildAll] can be used to create the buttons of a group in a single transaction.
+ *
  * @see RequiresComponents @RequiresComponents
  * @see Buttons
  * @see SelectMenus
@@ -212,6 +217,13 @@ class Components internal constructor(componentController: ComponentController)
     suspend inline fun ephemeralEntitySelectMenu(targets: Collection<SelectTarget>, block: EphemeralEntitySelectBuilder.() -> Unit) =
         ephemeralEntitySelectMenu(targets).apply(block).buildSuspend()
 
+    /**
+     * Returns the hit and miss counters of the component cache.
+     *
+     * @see BComponentsConfig.componentCacheSize
+     */
+    fun getCacheStats(): ComponentCacheStats = componentController.getCacheStats()
+
     companion object {
         /**
          * The default timeout for components and component groups.
@@ -28,15 +28,21 @@ sealed class AbstractButtonBuilder<T : AbstractButtonBuilder<T>>(
     @JvmSynthetic
     @PublishedApi
     internal suspend fun buildSuspend(): Button {
+        markBuilt()
+
+        return componentController.withNewComponent(this, ::createButton)
+    }
+
+    @JvmSynthetic
+    internal fun markBuilt() {
         check(!built) { "Cannot build components more than once" }
         built = true
-
-        return componentController.withNewComponent(this) { internalId, componentId ->
-            Button(
-                componentController,
-                internalId,
-                JDAButton.of(style, componentId, label, emoji)
-            )
-        }
     }
+
+    @JvmSynthetic
+    internal fun createButton(internalId: Int, componentId: String): Button = Button(
+        componentController,
+        internalId,
+        JDAButton.of(style, componentId, label, emoji)
+    )
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package io.github.freya022.botcommands.api.components.data
+
+import io.github.freya022.botcommands.api.core.config.BComponentsConfig
+
+/**
+ * Snapshot of the statistics of the component cache.
+ *
+ * All counters are `0` when the [cache is disabled][BComponentsConfig.componentCacheSize].
+ *
+ * @property hitCount  Number of component lookups which were served by the cache
+ * @property missCount Number of component lookups which required a database query
+ *
+ * @see BComponentsConfig.componentCacheSize
+ */
+data class ComponentCacheStats internal constructor(val hitCount: Long, val missCount: Long) {
+    /** Total number of component lookups */
+    val requestCount: Long
+        get() = hitCount + missCount
+
+    /** Ratio of lookups served by the cache, `1.0` if no lookups were made */
+    val hitRate: Double
+        get() = if (requestCount == 0L) 1.0 else hitCount.toDouble() / requestCount
+}
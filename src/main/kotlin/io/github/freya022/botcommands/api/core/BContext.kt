@@ -11,6 +11,7 @@ import io.github.freya022.botcommands.api.core.service.ServiceResult
 import io.github.freya022.botcommands.api.core.service.annotations.InterfacedService
 import io.github.freya022.botcommands.api.core.service.getService
 import io.github.freya022.botcommands.api.localization.DefaultMessages
+import io.github.freya022.botcommands.internal.core.internalSettingsProvider
 import net.dv8tion.jda.api.JDA
 import net.dv8tion.jda.api.entities.Guild
 import net.dv8tion.jda.api.interactions.DiscordLocale
@@ -78,10 +79,45 @@ interface BContext {
     /**
      * Returns the [SettingsProvider] for this context
      *
+     * The values used by the framework may be cached per guild, see [BConfig.settingsCacheDuration].
+     *
      * @return The current [SettingsProvider]
+     *
+     * @see invalidateGuildSettings
      */
     val settingsProvider: SettingsProvider?
 
+    /**
+     * Invalidates the cached [settings][SettingsProvider] of the specified guild,
+     * the next lookups will use the [SettingsProvider] again.
+     *
+     * This should be called after the settings of a guild were changed.
+     *
+     * @param guildId The ID of the guild to invalidate the settings of
+     *
+     * @see BConfig.settingsCacheDuration
+     */
+    fun invalidateGuildSettings(guildId: Long)
+
+    /**
+     * Invalidates the cached [settings][SettingsProvider] of the specified guild,
+     * the next lookups will use the [SettingsProvider] again.
+     *
+     * This should be called after the settings of a guild were changed.
+     *
+     * @param guild The guild to invalidate the settings of
+     *
+     * @see BConfig.settingsCacheDuration
+     */
+    fun invalidateGuildSettings(guild: Guild) = invalidateGuildSettings(guild.idLong)
+
+    /**
+     * Invalidates the cached [settings][SettingsProvider] of all guilds.
+     *
+     * @see BConfig.settingsCacheDuration
+     */
+    fun invalidateAllGuildSettings()
+
     /**
      * Returns the [global exception handler][GlobalExceptionHandler], used to handle errors caught by the framework.
      *
@@ -151,7 +187,7 @@ interface BContext {
             return guild.locale
         }
 
-        return settingsProvider?.getLocale(guild)
+        return internalSettingsProvider?.getLocale(guild)
             //Discord default
             ?: return DiscordLocale.ENGLISH_US
     }
@@ -19,12 +19,10 @@ import kotlinx.coroutines.*
 import net.dv8tion.jda.api.events.Event
 import net.dv8tion.jda.api.events.GenericEvent
 import net.dv8tion.jda.api.requests.GatewayIntent
-import java.lang.reflect.InvocationTargetException
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.locks.ReentrantLock
 import kotlin.concurrent.withLock
 import kotlin.reflect.KClass
-import kotlin.reflect.full.callSuspend
 import kotlin.reflect.full.findAnnotation
 import kotlin.reflect.full.functions
 import kotlin.reflect.jvm.jvmErasure
@@ -37,8 +35,8 @@ internal class SortedList<T>(private val comparator: Comparator<T>) {
     private val lock = ReentrantLock()
     private var list: List<T> = arrayListOf()
 
-    fun add(t: T): Unit = lock.withLock {
-        val newList = list + t
+    fun addAll(elements: Collection<T>): Unit = lock.withLock {
+        val newList = list + elements
         this.list = newList.sortedWith(comparator)
     }
 
@@ -49,8 +47,6 @@ internal class SortedList<T>(private val comparator: Comparator<T>) {
         }
     }
 
-    inline fun <R> map(block: (T) -> R): List<R> = list.map(block)
-
     fun removeAll(removedList: SortedList<T>): Boolean = lock.withLock {
         val newList = list.toMutableList()
         return newList.removeAll(removedList.list).also {
@@ -58,7 +54,7 @@ internal class SortedList<T>(private val comparator: Comparator<T>) {
         }
     }
 
-    inline fun forEach(block: (T) -> Unit) = list.forEach(block)
+    fun toList(): List<T> = list
 }
 
 private typealias EventMap = MutableMap<KClass<*>, SortedList<EventHandlerFunction>>
@@ -76,6 +72,10 @@ class EventDispatcher internal constructor(
     private val map: EventMap = ConcurrentHashMap()
     private val listeners: MutableMap<Class<*>, EventMap> = ConcurrentHashMap()
 
+    // Handlers of each concrete event class, including classes without handlers,
+    // computed on the first dispatch and cleared when listeners are added or removed
+    private val dispatchPlans: MutableMap<Class<*>, Array<EventHandlerFunction>> = ConcurrentHashMap()
+
     init {
         functionAnnotationsMap
             .get<BEventListener>()
@@ -105,15 +105,17 @@ class EventDispatcher internal constructor(
                     logger.error(InternalException("Unable to remove listener functions from registered functions")) { "An exception occurred while removing event listener $listener" }
                 }
             }
+            dispatchPlans.clear()
         }
     }
 
     @JvmSynthetic
     suspend fun dispatchEvent(event: Any) {
         // No need to check for `event` type as if it's in the map, then it's recognized
-        val handlers = map[event::class] ?: return
+        val handlers = getHandlers(event)
+        if (handlers.isEmpty()) return
 
-        handlers.forEach { eventHandler ->
+        for (eventHandler in handlers) {
             if (eventHandler.isAsync) {
                 context.coroutineScopesConfig.eventDispatcherScope.launch {
                     runEventHandler(eventHandler, event)
@@ -130,7 +132,8 @@ class EventDispatcher internal constructor(
     fun dispatchEventAsync(event: Any): List<Deferred<Unit>> {
         // Try not to switch context on non-handled events
         // No need to check for `event` type as if it's in the map, then it's recognized
-        val handlers = map[event::class] ?: return emptyList()
+        val handlers = getHandlers(event)
+        if (handlers.isEmpty()) return emptyList()
 
         val scope = context.coroutineScopesConfig.eventDispatcherScope
         return handlers.map { eventHandler ->
@@ -138,9 +141,15 @@ class EventDispatcher internal constructor(
         }
     }
 
+    private fun getHandlers(event: Any): Array<EventHandlerFunction> =
+        dispatchPlans.computeIfAbsent(event.javaClass) { eventClass ->
+            map[eventClass.kotlin]?.toList()?.toTypedArray() ?: emptyArray()
+        }
+
     private suspend fun runEventHandler(eventHandlerFunction: EventHandlerFunction, event: Any) {
         try {
-            val (instance, function) = eventHandlerFunction.classPathFunction
+            val instance = eventHandlerFunction.classPathFunction.instance
+            val invoker = eventHandlerFunction.invoker
 
             /**
              * See [CoroutineEventManager.handle]
@@ -149,85 +158,97 @@ class EventDispatcher internal constructor(
             if (actualTimeout.isPositive() && actualTimeout.isFinite()) {
                 // Timeout only works when the continuations implement a cancellation handler
                 val result = withTimeoutOrNull(actualTimeout.inWholeMilliseconds) {
-                    function.callSuspend(instance, event, *eventHandlerFunction.parameters)
+                    invoker.callSuspend(instance, event, *eventHandlerFunction.parameters)
                 }
                 if (result == null) {
                     logger.debug { "Event of type ${event.javaClass.simpleName} timed out." }
                 }
             } else {
-                function.callSuspend(instance, event, *eventHandlerFunction.parameters)
+                invoker.callSuspend(instance, event, *eventHandlerFunction.parameters)
             }
-        } catch (e: InvocationTargetException) {
+        } catch (_: CancellationException) {
+            // Ignore
+        } catch (e: Throwable) {
+            // Handlers are invoked directly, but may still be called by reflection
+            val exception = e.unwrap()
             if (event is InitializationEvent) {
                 //Entry point will catch exception as it is the one dispatching the initialization events
-                throw e.cause!!
+                throw exception
             }
 
-            if (e.cause is CancellationException) return
+            if (exception is CancellationException) return
 
-            printException(event, eventHandlerFunction, e)
-        } catch (_: CancellationException) {
-            // Ignore
-        } catch (e: Throwable) {
             printException(event, eventHandlerFunction, e)
         }
     }
 
-    private fun Collection<ClassPathFunction>.addAsEventListeners() = this
-        .requiredFilter(FunctionFilter.nonStatic())
-        .requiredFilter(FunctionFilter.firstArg(GenericEvent::class, BEvent::class))
-        .forEach { classPathFunc ->
-            val function = classPathFunc.function
-            val annotation = function.findAnnotation<BEventListener>()
-                ?: throwInternal(function, "Function was asserted to have BEventListener but it was not found")
-
-            val parameters = function.nonInstanceParameters
-
-            val eventErasure = parameters.first().type.jvmErasure
-            if (!annotation.ignoreIntents && eventErasure.isSubclassOf<Event>()) {
-                @Suppress("UNCHECKED_CAST")
-                val requiredIntents = GatewayIntent.fromEvents(eventErasure.java as Class<out Event>)
-                val missingIntents = requiredIntents - jdaService.intents - context.config.ignoredIntents
-                if (missingIntents.isNotEmpty()) {
-                    return@forEach logger.debug { "Skipping event listener ${function.shortSignature} as it is missing intents: $missingIntents" }
-                }
-
-                // Cannot check for RawGatewayEvent as JDA is not present yet and there is no config for it
-            }
-
-            val eventParametersErasures = parameters.drop(1).map { it.type.jvmErasure }
-                // The main risk was with injected services, as they may not be available at that point,
-                // but they are pretty much limited to objects manually added by the framework, before the service loading occurs
-                .onEach {
-                    context.serviceContainer.canCreateService(it)?.let { serviceError ->
-                        throwUser(
-                            classPathFunc.function,
-                            "Unable to register event listener due to an unavailable service: ${serviceError.toSimpleString()}"
-                        )
+    private fun Collection<ClassPathFunction>.addAsEventListeners() {
+        // Collect all handlers first, so each list is sorted once
+        val handlersByEvent: MutableMap<KClass<*>, MutableList<EventHandlerFunction>> = hashMapOf()
+        val handlersByListener: MutableMap<Class<*>, MutableMap<KClass<*>, MutableList<EventHandlerFunction>>> = hashMapOf()
+
+        this
+            .requiredFilter(FunctionFilter.nonStatic())
+            .requiredFilter(FunctionFilter.firstArg(GenericEvent::class, BEvent::class))
+            .forEach { classPathFunc ->
+                val function = classPathFunc.function
+                val annotation = function.findAnnotation<BEventListener>()
+                    ?: throwInternal(function, "Function was asserted to have BEventListener but it was not found")
+
+                val parameters = function.nonInstanceParameters
+
+                val eventErasure = parameters.first().type.jvmErasure
+                if (!annotation.ignoreIntents && eventErasure.isSubclassOf<Event>()) {
+                    @Suppress("UNCHECKED_CAST")
+                    val requiredIntents = GatewayIntent.fromEvents(eventErasure.java as Class<out Event>)
+                    val missingIntents = requiredIntents - jdaService.intents - context.config.ignoredIntents
+                    if (missingIntents.isNotEmpty()) {
+                        return@forEach logger.debug { "Skipping event listener ${function.shortSignature} as it is missing intents: $missingIntents" }
                     }
+
+                    // Cannot check for RawGatewayEvent as JDA is not present yet and there is no config for it
                 }
-            val eventHandlerFunction = EventHandlerFunction(classPathFunction = classPathFunc,
-                isAsync = annotation.async,
-                timeout = getTimeout(annotation),
-                priority = annotation.priority,
-                parametersBlock = {
-                    //Getting services is delayed until execution, as to ensure late services can be used in listeners
-                    context.serviceContainer.getParameters(eventParametersErasures).toTypedArray()
-                })
-
-            classPathFunc.function.declaringClass.java.let { clazz ->
-                val instanceMap = listeners.computeIfAbsent(clazz) { hashMapOf() }
 
+                val eventParametersErasures = parameters.drop(1).map { it.type.jvmErasure }
+                    // The main risk was with injected services, as they may not be available at that point,
+                    // but they are pretty much limited to objects manually added by the framework, before the service loading occurs
+                    .onEach {
+                        context.serviceContainer.canCreateService(it)?.let { serviceError ->
+                            throwUser(
+                                classPathFunc.function,
+                                "Unable to register event listener due to an unavailable service: ${serviceError.toSimpleString()}"
+                            )
+                        }
+                    }
+                val eventHandlerFunction = EventHandlerFunction(classPathFunction = classPathFunc,
+                    isAsync = annotation.async,
+                    timeout = getTimeout(annotation),
+                    priority = annotation.priority,
+                    parametersBlock = {
+                        //Getting services is delayed until execution, as to ensure late services can be used in listeners
+                        context.serviceContainer.getParameters(eventParametersErasures).toTypedArray()
+                    })
+
+                val listenerHandlers = handlersByListener.computeIfAbsent(classPathFunc.function.declaringClass.java) { hashMapOf() }
                 (eventTreeService.getSubclasses(eventErasure) + eventErasure).forEach {
-                    instanceMap.computeIfAbsent(it) { SortedList(EventHandlerFunction.priorityComparator) }.add(eventHandlerFunction)
+                    listenerHandlers.computeIfAbsent(it) { arrayListOf() }.add(eventHandlerFunction)
+                    handlersByEvent.computeIfAbsent(it) { arrayListOf() }.add(eventHandlerFunction)
                 }
             }
 
-            (eventTreeService.getSubclasses(eventErasure) + eventErasure).forEach {
-                map.computeIfAbsent(it) { SortedList(EventHandlerFunction.priorityComparator) }.add(eventHandlerFunction)
+        handlersByListener.forEach { (clazz, listenerHandlers) ->
+            val instanceMap = listeners.computeIfAbsent(clazz) { hashMapOf() }
+            listenerHandlers.forEach { (eventType, handlers) ->
+                instanceMap.computeIfAbsent(eventType) { SortedList(EventHandlerFunction.priorityComparator) }.addAll(handlers)
             }
         }
 
+        handlersByEvent.forEach { (eventType, handlers) ->
+            map.computeIfAbsent(eventType) { SortedList(EventHandlerFunction.priorityComparator) }.addAll(handlers)
+        }
+        dispatchPlans.clear()
+    }
+
     private fun getTimeout(annotation: BEventListener): Duration {
         if (annotation.timeout < 0) return Duration.INFINITE
 
@@ -6,6 +6,10 @@ import io.github.freya022.botcommands.api.components.SelectMenus
 import io.github.freya022.botcommands.api.core.db.ConnectionSupplier
 import io.github.freya022.botcommands.api.core.service.annotations.InjectedService
 import io.github.freya022.botcommands.internal.core.config.ConfigDSL
+import kotlin.time.Duration
+import kotlin.time.toJavaDuration
+import kotlin.time.toKotlinDuration
+import java.time.Duration as JavaDuration
 
 @InjectedService
 interface BComponentsConfig {
@@ -22,15 +26,105 @@ interface BComponentsConfig {
      * @see ConnectionSupplier
      */
     val useComponents: Boolean
+
+    /**
+     * The maximum number of components kept in an in-memory cache,
+     * avoiding database lookups when the same components are used repeatedly.
+     *
+     * Cached components are invalidated when they are deleted,
+     * which includes being used (for one-use components) and timing out.
+     *
+     * **Note:** The cache is local to this instance,
+     * components must not be deleted by another process while the cache is enabled.
+     *
+     * Default: `0` (disabled)
+     *
+     * Spring property: `botcommands.components.componentCacheSize`
+     *
+     * @see Components.getCacheStats
+     */
+    val componentCacheSize: Long
+
+    /**
+     * Whether ephemeral components are stored in memory instead of the database.
+     *
+     * Ephemeral components, as well as groups only containing them,
+     * are then created, retrieved and deleted without using the database,
+     * persistent components are still stored in the database.
+     *
+     * **Note:** A group cannot contain both in-memory and persistent components.
+     *
+     * Default: `false`
+     *
+     * Spring property: `botcommands.components.useInMemoryEphemeralComponents`
+     */
+    val useInMemoryEphemeralComponents: Boolean
+
+    /**
+     * How far ahead persistent timeouts are loaded from the database.
+     *
+     * When infinite, all persistent timeouts are loaded on startup,
+     * otherwise, only timeouts expiring within this window are loaded,
+     * and upcoming timeouts are periodically loaded in the background.
+     *
+     * Default: [Duration.INFINITE]
+     *
+     * Spring property: `botcommands.components.persistentTimeoutLoadWindowMillis`, **in milliseconds**
+     */
+    val persistentTimeoutLoadWindow: Duration
+
+    /**
+     * Whether one-use components are deleted in the background, instead of before running their handlers.
+     *
+     * Used one-use components are immediately marked as consumed, rejecting subsequent uses,
+     * and are then periodically deleted in batches.
+     *
+     * The remaining components are deleted when JDA shuts down,
+     * however, if the bot stops without shutting down JDA,
+     * persistent components used in the last second may be usable again after a restart.
+     *
+     * Default: `false`
+     *
+     * Spring property: `botcommands.components.deferOneUseComponentDeletion`
+     */
+    val deferOneUseComponentDeletion: Boolean
+
+    /**
+     * How far ahead persistent timeouts are loaded from the database.
+     *
+     * Spring property: `botcommands.components.persistentTimeoutLoadWindowMillis`, **in milliseconds**
+     */
+    fun getPersistentTimeoutLoadWindow(): JavaDuration = persistentTimeoutLoadWindow.toJavaDuration()
 }
 
 @ConfigDSL
 class BComponentsConfigBuilder internal constructor() : BComponentsConfig {
     @set:JvmName("useComponents")
     override var useComponents: Boolean = false
+    @set:JvmName("componentCacheSize")
+    override var componentCacheSize: Long = 0
+    @set:JvmName("useInMemoryEphemeralComponents")
+    override var useInMemoryEphemeralComponents: Boolean = false
+    @set:JvmName("deferOneUseComponentDeletion")
+    override var deferOneUseComponentDeletion: Boolean = false
+    @set:JvmSynthetic
+    override var persistentTimeoutLoadWindow: Duration = Duration.INFINITE
+
+    /**
+     * How far ahead persistent timeouts are loaded from the database.
+     *
+     * Spring property: `botcommands.components.persistentTimeoutLoadWindowMillis`, **in milliseconds**
+     */
+    fun setPersistentTimeoutLoadWindow(duration: JavaDuration) {
+        this.persistentTimeoutLoadWindow = duration.toKotlinDuration()
+    }
 
     @JvmSynthetic
     internal fun build() = object : BComponentsConfig {
         override val useComponents = this@BComponentsConfigBuilder.useComponents
+        override val componentCacheSize = this@BComponentsConfigBuilder.componentCacheSize
+        override val useInMemoryEphemeralComponents = this@BComponentsConfigBuilder.useInMemoryEphemeralComponents
+        override val persistentTimeoutLoadWindow = this@BComponentsConfigBuilder.persistentTimeoutLoadWindow
+        override val deferOneUseComponentDeletion = this@BComponentsConfigBuilder.deferOneUseComponentDeletion
     }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import io.github.freya022.botcommands.api.ReceiverConsumer
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.annotations.CacheAutocomplete
 import io.github.freya022.botcommands.api.commands.text.annotations.Hidden
 import io.github.freya022.botcommands.api.commands.text.annotations.RequireOwner
+import io.github.freya022.botcommands.api.core.BContext
+import io.github.freya022.botcommands.api.core.SettingsProvider
 import io.github.freya022.botcommands.api.core.annotations.BEventListener
 import io.github.freya022.botcommands.api.core.service.ClassGraphProcessor
 import io.github.freya022.botcommands.api.core.service.annotations.InjectedService
@@ -15,6 +17,10 @@ import io.github.freya022.botcommands.internal.core.config.ConfigDSL
 import net.dv8tion.jda.api.events.Event
 import net.dv8tion.jda.api.requests.GatewayIntent
 import net.dv8tion.jda.api.utils.messages.MessageCreateData
+import kotlin.time.Duration
+import kotlin.time.toJavaDuration
+import kotlin.time.toKotlinDuration
+import java.time.Duration as JavaDuration
 
 @InjectedService
 interface BConfig {
@@ -57,6 +63,19 @@ interface BConfig {
      * Spring property: `botcommands.core.disableAutocompleteCache`
      */
     val disableAutocompleteCache: Boolean
+    /**
+     * The duration for which the values returned by the [SettingsProvider] are cached, per guild.
+     *
+     * The cache of a guild can be invalidated with [BContext.invalidateGuildSettings],
+     * after its settings were changed, it is also invalidated when updating the guild commands.
+     *
+     * Caching is disabled with [Duration.ZERO], and values never expire with [Duration.INFINITE].
+     *
+     * Default: [Duration.ZERO]
+     *
+     * Spring property: `botcommands.core.settingsCacheDurationMillis`, **in milliseconds**
+     */
+    val settingsCacheDuration: Duration
 
     /**
      * Gateway intents to ignore when checking for [event listeners][BEventListener] intents.
@@ -86,6 +105,13 @@ interface BConfig {
     val componentsConfig: BComponentsConfig
     val coroutineScopesConfig: BCoroutineScopesConfig
 
+    /**
+     * The duration for which the values returned by the [SettingsProvider] are cached, per guild.
+     *
+     * Spring property: `botcommands.core.settingsCacheDurationMillis`, **in milliseconds**
+     */
+    fun getSettingsCacheDuration(): JavaDuration = settingsCacheDuration.toJavaDuration()
+
     fun isOwner(id: Long): Boolean = id in ownerIds
 }
 
@@ -101,6 +127,8 @@ class BConfigBuilder internal constructor() : BConfig {
     @set:DevConfig
     @set:JvmName("disableAutocompleteCache")
     override var disableAutocompleteCache = false
+    @set:JvmSynthetic
+    override var settingsCacheDuration: Duration = Duration.ZERO
 
     override val ignoredIntents: MutableSet<GatewayIntent> = enumSetOf()
 
@@ -116,6 +144,17 @@ class BConfigBuilder internal constructor() : BConfig {
     override val componentsConfig = BComponentsConfigBuilder()
     override val coroutineScopesConfig = BCoroutineScopesConfigBuilder()
 
+    /**
+     * The duration for which the values returned by the [SettingsProvider] are cached, per guild.
+     *
+     * Spring property: `botcommands.core.settingsCacheDurationMillis`, **in milliseconds**
+     *
+     * @see BConfig.settingsCacheDuration
+     */
+    fun setSettingsCacheDuration(duration: JavaDuration) {
+        this.settingsCacheDuration = duration.toKotlinDuration()
+    }
+
     /**
      * Adds owners, they can access the commands annotated with [RequireOwner] as well as bypass cooldowns.
      *
@@ -229,6 +268,7 @@ class BConfigBuilder internal constructor() : BConfig {
         override val classes = this@BConfigBuilder.classes.toImmutableSet()
         override val disableExceptionsInDMs = this@BConfigBuilder.disableExceptionsInDMs
         override val disableAutocompleteCache = this@BConfigBuilder.disableAutocompleteCache
+        override val settingsCacheDuration = this@BConfigBuilder.settingsCacheDuration
         override val ignoredIntents = this@BConfigBuilder.ignoredIntents.toImmutableSet()
         override val ignoredEventIntents = this@BConfigBuilder.ignoredEventIntents.toImmutableSet()
         override val classGraphProcessors = this@BConfigBuilder.classGraphProcessors.toImmutableList()
@@ -51,6 +51,62 @@ interface EventWaiterBuilder<T : Event> {
      */
     fun addPrecondition(precondition: Predicate<T>): EventWaiterBuilder<T>
 
+    /**
+     * Only accepts events from the specified user;
+     * unlike [preconditions][addPrecondition], this check is done without testing all waiters of the event type.
+     *
+     * Supported by message received/update events, reaction events, interaction events, member and user events.
+     *
+     * @param userId The ID of the user the event must come from
+     *
+     * @throws IllegalArgumentException If the event type does not have a user
+     *
+     * @return This builder for chaining convenience
+     */
+    fun setUserId(userId: Long): EventWaiterBuilder<T>
+
+    /**
+     * Only accepts events from the specified channel;
+     * unlike [preconditions][addPrecondition], this check is done without testing all waiters of the event type.
+     *
+     * Supported by message events, interaction events and channel events.
+     *
+     * @param channelId The ID of the channel the event must come from
+     *
+     * @throws IllegalArgumentException If the event type does not have a channel
+     *
+     * @return This builder for chaining convenience
+     */
+    fun setChannelId(channelId: Long): EventWaiterBuilder<T>
+
+    /**
+     * Only accepts events from the specified guild;
+     * unlike [preconditions][addPrecondition], this check is done without testing all waiters of the event type.
+     *
+     * Supported by guild events, message events and interaction events.
+     *
+     * @param guildId The ID of the guild the event must come from
+     *
+     * @throws IllegalArgumentException If the event type does not have a guild
+     *
+     * @return This builder for chaining convenience
+     */
+    fun setGuildId(guildId: Long): EventWaiterBuilder<T>
+
+    /**
+     * Only accepts events of the specified message;
+     * unlike [preconditions][addPrecondition], this check is done without testing all waiters of the event type.
+     *
+     * Supported by message events and component interaction events.
+     *
+     * @param messageId The ID of the message the event must be about
+     *
+     * @throws IllegalArgumentException If the event type does not have a message
+     *
+     * @return This builder for chaining convenience
+     */
+    fun setMessageId(messageId: Long): EventWaiterBuilder<T>
+
     /**
      * Sets the consumer called after the event waiter has all its preconditions met
      * and the task has not timeout nor been canceled.
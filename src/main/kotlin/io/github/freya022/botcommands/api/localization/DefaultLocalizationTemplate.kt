@@ -26,6 +26,9 @@ private val alphanumericRegex = Regex("""\w+""")
  * and format styles, such as: `{user_amount, choice, 0#users|1#user|1<users}`.
  *
  * Full example: `"There are {user_amount} {user_amount, choice, 0#users|1#user|1<users} and my up-time is {uptime, number} seconds"`
+ *
+ * The arguments are resolved when the template is created,
+ * values can also be passed by position with [bind], which maps the argument names to their slots once.
  */
 class DefaultLocalizationTemplate(context: BContext, private val template: String, locale: Locale) : LocalizationTemplate {
     private val localizableArguments: MutableList<LocalizableArgument> = ArrayList()
@@ -60,23 +63,93 @@ class DefaultLocalizationTemplate(context: BContext, private val template: Strin
         addRawArgument(template.substring(start))
     }
 
+    // Names of the formattable arguments, the index of a name is the slot of its value
+    private val slotNames: Array<String> = localizableArguments
+        .filterIsInstance<FormattableArgument>()
+        .mapTo(linkedSetOf()) { it.argumentName }
+        .toTypedArray()
+    private val slotByArgumentName: Map<String, Int> = slotNames.withIndex().associate { (slot, name) -> Pair(name, slot) }
+    // Slot of each localizable argument, -1 for raw arguments
+    private val argumentSlots: IntArray = IntArray(localizableArguments.size) { i ->
+        when (val localizableArgument = localizableArguments[i]) {
+            is RawArgument -> -1
+            is FormattableArgument -> slotByArgumentName.getValue(localizableArgument.argumentName)
+            else -> throwUser("Unknown localizable argument type: ${localizableArgument::class.simpleNestedName}")
+        }
+    }
+    private val rawLength: Int = localizableArguments.sumOf { if (it is RawArgument) it.get().length else 0 }
+    // The localized string, when the template has no arguments
+    private val constantString: String? = when {
+        slotNames.isEmpty() -> localizableArguments.joinToString("") { (it as RawArgument).get() }
+        else -> null
+    }
+
+    override val argumentNames: List<String> = slotNames.toList()
+
     private fun addRawArgument(substring: String) {
         if (substring.isEmpty()) return
         localizableArguments += RawArgument(substring)
     }
 
     override fun localize(vararg args: Localization.Entry): String {
-        return localizableArguments.joinToString("") { localizableArgument ->
-            when (localizableArgument) {
-                is RawArgument -> localizableArgument.get()
-                is FormattableArgument -> formatFormattableString(args, localizableArgument)
-                else -> throwUser("Unknown localizable argument type: ${localizableArgument::class.simpleNestedName}")
+        if (constantString != null) return constantString
+
+        // Resolve the values once, the first entry of an argument name is used
+        val values = arrayOfNulls<Any>(slotNames.size)
+        for (arg in args) {
+            val slot = slotByArgumentName[arg.argumentName] ?: continue
+            if (values[slot] == null) values[slot] = arg.value
+        }
+
+        values.forEachIndexed { slot, value ->
+            if (value == null)
+                throw IllegalArgumentException("Could not find argument '${slotNames[slot]}' in ${args.contentToString()}, in template: '$template'")
+        }
+
+        return format(values)
+    }
+
+    /**
+     * Binds the given argument names to the positions of the values, the names are resolved once,
+     * localizing with the binding then does not create [entries][Localization.Entry] or look up names.
+     *
+     * Names which are not used by this template are ignored, same as with [localize].
+     *
+     * @throws IllegalArgumentException If an argument of this template is not in [argumentNames]
+     */
+    override fun bind(vararg argumentNames: String): BoundLocalizationTemplate {
+        // Position of the value of each slot, the first position of a name is used
+        val valuePositions = IntArray(slotNames.size) { slot ->
+            val position = argumentNames.indexOf(slotNames[slot])
+            require(position != -1) {
+                "Could not find argument '${slotNames[slot]}' in ${argumentNames.contentToString()}, in template: '$template'"
+            }
+            position
+        }
+        val valueCount = argumentNames.size
+
+        return BoundLocalizationTemplate { values ->
+            require(values.size == valueCount) {
+                "Expected $valueCount values for ${argumentNames.contentToString()}, got ${values.size}, in template: '$template'"
             }
+            if (constantString != null) return@BoundLocalizationTemplate constantString
+
+            format(Array(valuePositions.size) { slot -> values[valuePositions[slot]] })
         }
     }
 
-    private fun formatFormattableString(args: Array<out Localization.Entry>, formattableArgument: FormattableArgument): String {
-        val value = getValueByArgumentName(args, formattableArgument.argumentName)
+    private fun format(values: Array<out Any?>): String = buildString(rawLength + 16 * slotNames.size) {
+        localizableArguments.forEachIndexed { i, localizableArgument ->
+            val slot = argumentSlots[i]
+            if (slot == -1) {
+                append((localizableArgument as RawArgument).get())
+            } else {
+                append(formatFormattableString(localizableArgument as FormattableArgument, values[slot]!!))
+            }
+        }
+    }
+
+    private fun formatFormattableString(formattableArgument: FormattableArgument, value: Any): String {
         return try {
             formattableArgument.format(value)
         } catch (e: Exception) { //For example, if the user provided a string to a number format
@@ -84,11 +157,6 @@ class DefaultLocalizationTemplate(context: BContext, private val template: Strin
         }
     }
 
-    private fun getValueByArgumentName(args: Array<out Localization.Entry>, argumentName: String): Any {
-        return args.find { it.argumentName == argumentName }?.value
-            ?: throw IllegalArgumentException("Could not find argument '$argumentName' in ${args.contentToString()}, in template: '$template'")
-    }
-
     override fun toString(): String {
         return "DefaultLocalizationTemplate(template='$template', localizableArguments=$localizableArguments)"
     }
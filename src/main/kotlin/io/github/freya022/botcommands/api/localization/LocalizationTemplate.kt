@@ -8,14 +8,53 @@ package io.github.freya022.botcommands.api.localization
  * @see DefaultLocalizationTemplate
  */
 interface LocalizationTemplate {
+    /**
+     * Names of the arguments of this template, in the order of their first appearance,
+     * or `null` if this template does not know them.
+     */
+    val argumentNames: List<String>?
+        get() = null
+
     /**
      * Processes the localization template and replaces the named parameters by their values
      */
     fun localize(vararg args: Localization.Entry): String
+
+    /**
+     * Binds the given argument names to the positions of the values
+     * passed to [BoundLocalizationTemplate.localize].
+     *
+     * The binding can be kept and reused, so templates can resolve the arguments once,
+     * the default implementation creates [entries][Localization.Entry] and calls [localize].
+     *
+     * @param argumentNames The names of the arguments, in the order their values will be passed
+     */
+    fun bind(vararg argumentNames: String): BoundLocalizationTemplate {
+        val names = argumentNames.clone()
+        return BoundLocalizationTemplate { values ->
+            require(values.size == names.size) {
+                "Expected ${names.size} values for ${names.contentToString()}, got ${values.size}"
+            }
+            localize(*Array(names.size) { Localization.Entry.entry(names[it], values[it]) })
+        }
+    }
+}
+
+/**
+ * A [LocalizationTemplate] with its arguments [bound to positions][LocalizationTemplate.bind].
+ */
+fun interface BoundLocalizationTemplate {
+    /**
+     * Processes the localization template and replaces the parameters by the values at the same position
+     * as their name in [LocalizationTemplate.bind]
+     *
+     * @throws IllegalArgumentException If the number of values is not the number of bound names
+     */
+    fun localize(vararg values: Any): String
 }
 
 /**
  * Processes the localization template and replaces the named parameters by their values
  */
 fun LocalizationTemplate.localize(vararg args: Pair<String, Any>): String =
-    localize(*args.map { (k, v) -> Localization.Entry.entry(k, v) }.toTypedArray())
\ No newline at end of file
+    localize(*Array(args.size) { Localization.Entry.entry(args[it].first, args[it].second) })
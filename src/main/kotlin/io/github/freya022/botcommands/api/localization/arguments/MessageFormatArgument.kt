@@ -2,20 +2,19 @@ package io.github.freya022.botcommands.api.localization.arguments
 
 import java.text.MessageFormat
 import java.util.*
-import java.util.concurrent.locks.ReentrantLock
-import kotlin.concurrent.withLock
 
 class MessageFormatArgument(
     override val argumentName: String,
     formatter: String,
     locale: Locale
 ) : FormattableArgument {
-    private val lock = ReentrantLock()
     private val formatter = MessageFormat(formatter, locale)
+    // MessageFormat is not thread-safe, each thread formats with its own copy
+    private val threadFormatter: ThreadLocal<MessageFormat> = ThreadLocal.withInitial { this.formatter.clone() as MessageFormat }
 
-    override fun format(obj: Any): String = lock.withLock { formatter.format(arrayOf(obj)) }
+    override fun format(obj: Any): String = threadFormatter.get().format(arrayOf(obj))
 
     override fun toString(): String {
         return "MessageFormatArgument(argumentName='$argumentName', formatter=${formatter.toPattern()})"
     }
-}
\ No newline at end of file
+}
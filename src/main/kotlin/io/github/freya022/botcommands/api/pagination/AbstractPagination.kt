@@ -8,10 +8,9 @@ import io.github.freya022.botcommands.api.core.BContext
 import io.github.freya022.botcommands.api.core.service.getService
 import io.github.freya022.botcommands.api.core.utils.toEditData
 import io.github.freya022.botcommands.internal.core.ExceptionHandler
-import io.github.freya022.botcommands.internal.utils.launchCatchingDelayed
+import io.github.freya022.botcommands.internal.pagination.PaginationTimeouts
 import io.github.oshai.kotlinlogging.KotlinLogging
 import kotlinx.coroutines.CoroutineScope
-import kotlinx.coroutines.Job
 import kotlinx.coroutines.runBlocking
 import net.dv8tion.jda.api.entities.Message
 import net.dv8tion.jda.api.interactions.InteractionHook
@@ -37,7 +36,9 @@ abstract class AbstractPagination<T : AbstractPagination<T>> protected construct
 
     private val usedComponents = UsedComponentSet(componentsService, builder.cleanAfterRefresh)
 
-    private lateinit var timeoutJob: Job
+    private val paginationTimeouts: PaginationTimeouts = context.getService()
+    private val timeoutKey: Int = paginationTimeouts.nextKey()
+    private var timeoutScheduled = false
     private var timeoutPassed = false
 
     /**
@@ -83,16 +84,14 @@ abstract class AbstractPagination<T : AbstractPagination<T>> protected construct
      */
     open fun restartTimeout() {
         if (timeout != null) {
-            if (::timeoutJob.isInitialized) {
-                // The job cannot be rescheduled if the timeout handler has run
-                check(!timeoutPassed) {
-                    "Cannot use this pagination instance after the timeout has elapsed"
-                }
-
-                timeoutJob.cancel()
+            // The timeout cannot be rescheduled if the timeout handler has run
+            check(!timeoutPassed) {
+                "Cannot use this pagination instance after the timeout has elapsed"
             }
 
-            timeoutJob = paginationTimeoutScope.launchCatchingDelayed(timeout.timeout, { onTimeoutHandlerException(it) }) {
+            // Replaces the previous timeout
+            timeoutScheduled = true
+            paginationTimeouts.schedule(timeoutKey, timeout.timeout) {
                 timeoutPassed = true
                 runCatching { cleanup() }.onFailure(::onTimeoutHandlerException)
                 @Suppress("UNCHECKED_CAST")
@@ -121,8 +120,8 @@ abstract class AbstractPagination<T : AbstractPagination<T>> protected construct
      * The timeout will be enabled back if the page changes
      */
     open fun cancelTimeout() {
-        if (::timeoutJob.isInitialized) {
-            timeoutJob.cancel()
+        if (timeoutScheduled) {
+            paginationTimeouts.cancel(timeoutKey)
         }
     }
 
@@ -50,7 +50,7 @@ class ButtonMenu<E> internal constructor(
     override fun putComponents(builder: MessageCreateBuilder) {
         super.putComponents(builder)
 
-        pages[page]!!.entries
+        val buttonBuilders = pages[page]!!.entries
             .mapIndexed { i, item ->
                 val styledContent = buttonContentSupplier.apply(item, i)
                 buttons.of(styledContent).ephemeral()
@@ -63,8 +63,9 @@ class ButtonMenu<E> internal constructor(
                         callback(event, item)
                     }
                     .constraints(constraints)
-                    .build()
             }
+
+        buttons.buildAllJava(buttonBuilders)
             .chunked(5, ActionRow::of)
             .also(builder::addComponents)
     }
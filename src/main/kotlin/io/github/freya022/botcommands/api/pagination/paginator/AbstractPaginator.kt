@@ -54,30 +54,41 @@ abstract class AbstractPaginator<T : AbstractPaginator<T>> protected constructor
     }
 
     protected open fun putComponents(builder: MessageCreateBuilder) {
-        val buttons = buildList {
-            this += firstButton.toPageButton(targetPage = 0).withDisabled(isFirstPage)
-            this += previousButton.toPageButton(targetPage = page - 1).withDisabled(isFirstPage)
+        val buttonBuilders = buildList {
+            this += firstButton.toPageButtonBuilder(targetPage = 0)
+            this += previousButton.toPageButtonBuilder(targetPage = page - 1)
 
-            this += nextButton.toPageButton(targetPage = page + 1).withDisabled(isLastPage)
-            this += lastButton.toPageButton(targetPage = maxPages - 1).withDisabled(isLastPage)
+            this += nextButton.toPageButtonBuilder(targetPage = page + 1)
+            this += lastButton.toPageButtonBuilder(targetPage = maxPages - 1)
 
             if (deleteButton != null) {
                 this += buttons.of(deleteButton).ephemeral()
                     .bindTo(::onDeleteClicked)
                     .constraints(constraints)
-                    .build()
             }
         }
 
-        builder.addActionRow(buttons)
+        // Create all buttons in one go
+        val builtButtons = buttons.buildAllJava(buttonBuilders)
+        val navigationButtons = buildList {
+            this += builtButtons[0].withDisabled(isFirstPage)
+            this += builtButtons[1].withDisabled(isFirstPage)
+
+            this += builtButtons[2].withDisabled(isLastPage)
+            this += builtButtons[3].withDisabled(isLastPage)
+
+            // Delete button, if any
+            addAll(builtButtons.subList(4, builtButtons.size))
+        }
+
+        builder.addActionRow(navigationButtons)
     }
 
-    private fun ButtonContent.toPageButton(targetPage: Int) =
+    private fun ButtonContent.toPageButtonBuilder(targetPage: Int) =
         buttons.of(this).ephemeral()
             .bindTo { e: ButtonEvent ->
                 page = targetPage.coerceIn(0, maxPages - 1)
                 e.editMessage(getCurrentMessage()).queue()
             }
             .constraints(constraints)
-            .build()
 }
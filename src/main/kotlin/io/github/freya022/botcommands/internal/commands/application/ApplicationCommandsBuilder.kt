@@ -130,7 +130,9 @@ internal class ApplicationCommandsBuilder(
                 logger.debug { "Guild '${guild.name}' (${guild.id}) commands does not have to be updated, ${guildUpdater.filteredCommandsCount} were kept (${getCheckTypeString()})" }
             }
 
-            applicationCommandsContext.putLiveApplicationCommandsMap(guild, guildUpdater.allApplicationCommands.toApplicationCommandMap())
+            applicationCommandsContext.putSharedLiveApplicationCommandsMap(guild, guildUpdater.commandsSignature) {
+                guildUpdater.allApplicationCommands.toApplicationCommandMap()
+            }
 
             firstGuildUpdates.add(guild.idLong)
             return CommandUpdateResult(guild, needsUpdate, failedDeclarations)
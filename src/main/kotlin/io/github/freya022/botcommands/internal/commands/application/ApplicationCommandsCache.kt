@@ -1,5 +1,7 @@
 package io.github.freya022.botcommands.internal.commands.application
 
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
 import io.github.freya022.botcommands.api.core.service.annotations.BService
 import io.github.freya022.botcommands.api.core.service.annotations.Lazy
 import io.github.freya022.botcommands.api.core.utils.DefaultObjectMapper
@@ -9,9 +11,12 @@ import net.dv8tion.jda.api.JDA
 import net.dv8tion.jda.api.entities.Guild
 import net.dv8tion.jda.api.interactions.commands.build.CommandData
 import net.dv8tion.jda.api.utils.data.DataArray
+import java.nio.ByteBuffer
 import java.nio.file.Path
+import java.security.MessageDigest
 import kotlin.io.path.Path
 import kotlin.io.path.createDirectories
+import kotlin.io.path.nameWithoutExtension
 
 @Lazy // The service is requested when JDA is available
 @BService
@@ -35,9 +40,42 @@ internal class ApplicationCommandsCache(jda: JDA) {
         return cachePath.resolve(guild.id).resolve("commands.json")
     }
 
+    // Guilds with the same commands produce the same bytes, compute their fingerprint once
+    private val fingerprints: Cache<ByteBuffer, String> = Caffeine.newBuilder()
+        .maximumSize(64)
+        .build()
+
+    /**
+     * Returns a hash of the commands, which does not depend on the order of what Discord considers unordered,
+     * such as the commands themselves, or the keys of the objects.
+     *
+     * Command options are order-sensitive.
+     */
+    fun getFingerprint(commandsBytes: ByteArray): String = fingerprints.get(ByteBuffer.wrap(commandsBytes)) {
+        val canonicalContent = toCanonicalString(DefaultObjectMapper.readList(commandsBytes))
+        MessageDigest.getInstance("SHA-256")
+            .digest(canonicalContent.encodeToByteArray())
+            .joinToString("") { "%02x".format(it) }
+    }
+
     companion object {
         fun Collection<CommandData>.toJsonBytes(): ByteArray = DataArray.empty().addAll(this).toJson()
 
+        fun getFingerprintPath(commandsPath: Path): Path =
+            commandsPath.resolveSibling("${commandsPath.nameWithoutExtension}.sha256")
+
+        // Same rules as checkList, only lists of options keep their order
+        private fun toCanonicalString(obj: Any?): String = when (obj) {
+            is Map<*, *> -> obj.entries
+                .sortedBy { it.key.toString() }
+                .joinToString(",", "{", "}") { (key, value) -> "${toCanonicalString(key.toString())}:${toCanonicalString(value)}" }
+            is List<*> -> obj.map(::toCanonicalString)
+                .let { items -> if (obj.any { it is Map<*, *> && it["autocomplete"] != null }) items else items.sorted() }
+                .joinToString(",", "[", "]")
+            is String -> "\"" + obj.replace("\\", "\\\\").replace("\"", "\\\"") + "\""
+            else -> obj.toString()
+        }
+
         fun isJsonContentSame(context: BContextImpl, oldContentBytes: ByteArray, newContentBytes: ByteArray): Boolean {
             val oldMap = DefaultObjectMapper.readList(oldContentBytes)
             val newMap = DefaultObjectMapper.readList(newContentBytes)
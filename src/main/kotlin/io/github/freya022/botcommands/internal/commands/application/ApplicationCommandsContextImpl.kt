@@ -11,6 +11,7 @@ import io.github.freya022.botcommands.internal.commands.application.context.mess
 import io.github.freya022.botcommands.internal.commands.application.context.user.UserCommandInfo
 import io.github.freya022.botcommands.internal.commands.application.slash.SlashCommandInfo
 import io.github.freya022.botcommands.internal.core.BContextImpl
+import io.github.oshai.kotlinlogging.KotlinLogging
 import kotlinx.coroutines.async
 import kotlinx.coroutines.future.asCompletableFuture
 import net.dv8tion.jda.api.entities.Guild
@@ -18,10 +19,14 @@ import java.util.concurrent.CompletableFuture
 import java.util.concurrent.locks.ReentrantLock
 import kotlin.concurrent.withLock
 
+private val logger = KotlinLogging.logger { }
+
 @BService
 internal class ApplicationCommandsContextImpl internal constructor(private val context: BContextImpl) : ApplicationCommandsContext {
     private val writeLock = ReentrantLock()
     private val liveApplicationCommandInfoMap = TLongObjectHashMap<ApplicationCommandMap>()
+    // Guilds declaring equivalent commands share the same map
+    private val sharedApplicationCommandMaps = SharedApplicationCommandMaps()
 
     override fun findLiveSlashCommand(guild: Guild?, path: CommandPath): SlashCommandInfo? =
         getLiveApplicationCommandsMap(guild)?.findSlashCommand(path)
@@ -50,6 +55,22 @@ internal class ApplicationCommandsContextImpl internal constructor(private val c
         liveApplicationCommandInfoMap.put(getGuildKey(guild), map.toUnmodifiableMap())
     }
 
+    /**
+     * Puts the map of a guild, reusing the map of another guild with the same [signature][ApplicationCommandsUpdater.commandsSignature],
+     * in which case [mapSupplier] is not called.
+     */
+    fun putSharedLiveApplicationCommandsMap(guild: Guild, signature: List<Any?>, mapSupplier: () -> ApplicationCommandMap) {
+        val map = sharedApplicationCommandMaps.get(signature, mapSupplier)
+        val guildMaps = writeLock.withLock {
+            liveApplicationCommandInfoMap.put(getGuildKey(guild), map)
+            liveApplicationCommandInfoMap.size()
+        }
+
+        logger.trace {
+            "Guild ${guild.id} uses one of ${sharedApplicationCommandMaps.size} shared command maps for $guildMaps maps, ${sharedApplicationCommandMaps.hitCount} maps were reused, ${sharedApplicationCommandMaps.missCount} were built"
+        }
+    }
+
     override fun updateGlobalApplicationCommands(force: Boolean): CompletableFuture<CommandUpdateResult> {
         return context.coroutineScopesConfig.commandUpdateScope.async {
             context.getService<ApplicationCommandsBuilder>().updateGlobalCommands(force)
@@ -57,6 +78,8 @@ internal class ApplicationCommandsContextImpl internal constructor(private val c
     }
 
     override fun updateGuildApplicationCommands(guild: Guild, force: Boolean): CompletableFuture<CommandUpdateResult> {
+        // Settings may have changed before updating
+        context.invalidateGuildSettings(guild)
         return context.coroutineScopesConfig.commandUpdateScope.async {
             context.getService<ApplicationCommandsBuilder>().updateGuildCommands(guild, force)
         }.asCompletableFuture()
@@ -10,12 +10,16 @@ import io.github.freya022.botcommands.api.core.utils.overwriteBytes
 import io.github.freya022.botcommands.internal.commands.application.ApplicationCommandsCache.Companion.toJsonBytes
 import io.github.freya022.botcommands.internal.commands.application.localization.BCLocalizationFunction
 import io.github.freya022.botcommands.internal.commands.application.mixins.ITopLevelApplicationCommandInfo
+import io.github.freya022.botcommands.internal.commands.application.slash.SlashCommandInfo
+import io.github.freya022.botcommands.internal.commands.application.slash.SlashCommandOption
 import io.github.freya022.botcommands.internal.commands.application.slash.SlashSubcommandGroupInfo
 import io.github.freya022.botcommands.internal.commands.application.slash.SlashSubcommandInfo
 import io.github.freya022.botcommands.internal.commands.application.slash.SlashUtils.getDiscordOptions
 import io.github.freya022.botcommands.internal.commands.application.slash.TopLevelSlashCommandInfo
 import io.github.freya022.botcommands.internal.commands.mixins.INamedCommand
 import io.github.freya022.botcommands.internal.core.BContextImpl
+import io.github.freya022.botcommands.internal.parameters.CustomMethodOption
+import io.github.freya022.botcommands.internal.parameters.IAggregatedParameter
 import io.github.freya022.botcommands.internal.utils.asScopeString
 import io.github.freya022.botcommands.internal.utils.rethrowUser
 import io.github.oshai.kotlinlogging.KotlinLogging
@@ -42,6 +46,7 @@ internal class ApplicationCommandsUpdater private constructor(
         null -> commandsCache.globalCommandsPath
         else -> commandsCache.getGuildCommandsPath(guild)
     }
+    private val fingerprintPath = ApplicationCommandsCache.getFingerprintPath(commandsCachePath)
 
     internal val allApplicationCommands: Collection<ApplicationCommandInfo> = manager.allApplicationCommands
     private val allCommandData: Collection<CommandData>
@@ -61,6 +66,74 @@ internal class ApplicationCommandsUpdater private constructor(
         }
     }
 
+    private val allCommandBytes: ByteArray by lazy { allCommandData.toJsonBytes() }
+
+    /**
+     * Describes all declared commands, including the filtered ones,
+     * guilds with equal signatures handle commands the same way and can share the same command map.
+     *
+     * This includes what is sent to Discord, and what handles the commands, such as functions, filters and rate limits.
+     */
+    internal val commandsSignature: List<Any?> by lazy {
+        buildList {
+            for (info in allApplicationCommands) {
+                addSignature(info)
+                if (info is TopLevelSlashCommandInfo) {
+                    info.subcommands.values.forEach { addSignature(it) }
+                    info.subcommandGroups.values.forEach { groupInfo ->
+                        add(groupInfo.path.fullPath)
+                        add(groupInfo.description)
+                        add(groupInfo.declarationSite.toString())
+                        groupInfo.subcommands.values.forEach { addSignature(it) }
+                    }
+                }
+            }
+        }
+    }
+
+    private fun MutableList<Any?>.addSignature(info: ApplicationCommandInfo) {
+        add(info.javaClass)
+        add(info.path.fullPath)
+        add(info.declarationSite.toString())
+        add(info.instance)
+        add(info.function)
+        add(info.filters)
+        // Bucket configurations are not comparable, only share rate limits from the same declaration
+        add(IdentityKey(info.rateLimitInfo))
+        add(info.userPermissions)
+        add(info.botPermissions)
+        if (info is ITopLevelApplicationCommandInfo) {
+            add(info.scope)
+            add(info.isDefaultLocked)
+            add(info.nsfw)
+        }
+        if (info is SlashCommandInfo) {
+            add(info.description)
+            add(info.getDiscordOptions(guild).map { it.toData().toString() })
+        }
+        info.parameters.forEach { if (it is IAggregatedParameter) addSignature(it) }
+    }
+
+    /**
+     * Adds what handles the parameter values,
+     * resolvers, value suppliers and autocomplete handlers may be created per guild, and are compared by identity.
+     */
+    private fun MutableList<Any?>.addSignature(parameter: IAggregatedParameter) {
+        add(parameter.name)
+        add(parameter.aggregator.aggregator)
+        for (option in parameter.options) {
+            add(option.javaClass)
+            add(option.declaredName)
+            when (option) {
+                is ApplicationCommandOption -> add(IdentityKey(option.resolver))
+                is CustomMethodOption -> add(IdentityKey(option.resolver))
+                is ApplicationGeneratedOption -> add(IdentityKey(option.generatedValueSupplier))
+            }
+            if (option is SlashCommandOption) add(IdentityKey(option.autocompleteInfo))
+        }
+        parameter.nestedAggregatedParameters.forEach { addSignature(it) }
+    }
+
     suspend fun shouldUpdateCommands(): Boolean {
         val oldBytes = when {
             onlineCheck -> {
@@ -75,14 +148,24 @@ internal class ApplicationCommandsUpdater private constructor(
                     return true
                 }
 
+                if (readFingerprint() == commandsCache.getFingerprint(allCommandBytes)) {
+                    logger.trace { "Skipping update as the commands fingerprint is the same" }
+                    return false
+                }
+
                 withContext(Dispatchers.IO) {
                     Files.readAllBytes(commandsCachePath)
                 }
             }
         }
 
-        val newBytes = allCommandData.toJsonBytes()
+        val newBytes = allCommandBytes
         return (!ApplicationCommandsCache.isJsonContentSame(context, oldBytes, newBytes)).also { needUpdate ->
+            if (!needUpdate && !onlineCheck) {
+                // Only the fingerprint differed, or was absent, skip the comparison next time
+                saveFingerprint()
+            }
+
             if (needUpdate) {
                 logger.trace { "Updating commands because content is not equal" }
 
@@ -156,7 +239,7 @@ internal class ApplicationCommandsUpdater private constructor(
         }
 
     private fun <T : INamedCommand> Collection<T>.filterCommands() = filter { info ->
-        context.settingsProvider?.let { settings ->
+        context.cachedSettingsProvider?.let { settings ->
             guild?.let { guild ->
                 return@filter settings.getGuildCommands(guild).filter.test(info.path)
             }
@@ -189,12 +272,33 @@ internal class ApplicationCommandsUpdater private constructor(
 
     private fun saveCommandData(guild: Guild?) {
         try {
-            commandsCachePath.overwriteBytes(allCommandData.toJsonBytes())
+            commandsCachePath.overwriteBytes(allCommandBytes)
         } catch (e: Exception) {
             logger.error(e) {
                 "An exception occurred while temporarily saving ${guild.asScopeString()} commands in '${commandsCachePath.toAbsolutePath()}'"
             }
         }
+
+        saveFingerprint()
+    }
+
+    private suspend fun readFingerprint(): String? = withContext(Dispatchers.IO) {
+        try {
+            if (Files.exists(fingerprintPath)) Files.readString(fingerprintPath) else null
+        } catch (e: Exception) {
+            logger.debug(e) { "Could not read commands fingerprint of ${guild.asScopeString()} in '${fingerprintPath.toAbsolutePath()}'" }
+            null
+        }
+    }
+
+    private fun saveFingerprint() {
+        try {
+            fingerprintPath.overwriteBytes(commandsCache.getFingerprint(allCommandBytes).encodeToByteArray())
+        } catch (e: Exception) {
+            logger.error(e) {
+                "An exception occurred while saving ${guild.asScopeString()} commands fingerprint in '${fingerprintPath.toAbsolutePath()}'"
+            }
+        }
     }
 
     companion object {
@@ -0,0 +1,38 @@
+package io.github.freya022.botcommands.internal.commands.application
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import io.github.freya022.botcommands.api.commands.application.ApplicationCommandMap
+
+/**
+ * Command maps shared by the guilds declaring equivalent commands,
+ * keyed by the [signature][ApplicationCommandsUpdater.commandsSignature] of their declarations.
+ *
+ * A map is removed once no guild uses it.
+ */
+internal class SharedApplicationCommandMaps {
+    private val maps: Cache<List<Any?>, ApplicationCommandMap> = Caffeine.newBuilder()
+        .weakValues()
+        .recordStats()
+        .build()
+
+    val size: Long get() = maps.estimatedSize()
+    val hitCount: Long get() = maps.stats().hitCount()
+    val missCount: Long get() = maps.stats().missCount()
+
+    /**
+     * Returns the unmodifiable map used by the guilds with this signature,
+     * [mapSupplier] is only called if no guild uses it yet.
+     */
+    fun get(signature: List<Any?>, mapSupplier: () -> ApplicationCommandMap): ApplicationCommandMap =
+        maps.get(signature) { mapSupplier().toUnmodifiableMap() }
+}
+
+/**
+ * Compares objects by identity in a [signature][ApplicationCommandsUpdater.commandsSignature],
+ * for the objects which may be created per guild, or which are not comparable.
+ */
+internal class IdentityKey(private val obj: Any?) {
+    override fun equals(other: Any?): Boolean = other is IdentityKey && other.obj === obj
+    override fun hashCode(): Int = System.identityHashCode(obj)
+}
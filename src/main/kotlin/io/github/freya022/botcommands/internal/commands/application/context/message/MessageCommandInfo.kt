@@ -13,13 +13,13 @@ import io.github.freya022.botcommands.internal.commands.application.mixins.ITopL
 import io.github.freya022.botcommands.internal.commands.application.slash.SlashUtils.getCheckedDefaultValue
 import io.github.freya022.botcommands.internal.core.options.Option
 import io.github.freya022.botcommands.internal.core.options.OptionType
+import io.github.freya022.botcommands.internal.core.options.OptionValues
 import io.github.freya022.botcommands.internal.core.reflection.checkEventScope
 import io.github.freya022.botcommands.internal.core.reflection.toMemberParamFunction
 import io.github.freya022.botcommands.internal.parameters.CustomMethodOption
 import io.github.freya022.botcommands.internal.transform
 import io.github.freya022.botcommands.internal.utils.*
 import net.dv8tion.jda.api.events.interaction.command.MessageContextInteractionEvent
-import kotlin.reflect.full.callSuspendBy
 
 class MessageCommandInfo internal constructor(
     private val context: BContext,
@@ -53,14 +53,14 @@ class MessageCommandInfo internal constructor(
         }
 
         val finalParameters = parameters.mapFinalParameters(event, optionValues)
-        function.callSuspendBy(finalParameters)
+        eventFunction.invoker.callSuspend(finalParameters)
 
         return true
     }
 
     private suspend fun tryInsertOption(
         event: GlobalMessageEvent,
-        optionMap: MutableMap<Option, Any?>,
+        optionValues: OptionValues,
         option: Option
     ): InsertOptionResult {
         val value = when (option.optionType) {
@@ -82,6 +82,6 @@ class MessageCommandInfo internal constructor(
             else -> throwInternal("${option.optionType} has not been implemented")
         }
 
-        return tryInsertNullableOption(value, option, optionMap)
+        return tryInsertNullableOption(value, option, optionValues)
     }
 }
\ No newline at end of file
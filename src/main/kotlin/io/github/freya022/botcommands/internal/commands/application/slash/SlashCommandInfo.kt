@@ -13,7 +13,9 @@ import io.github.freya022.botcommands.internal.commands.application.ApplicationG
 import io.github.freya022.botcommands.internal.commands.application.slash.SlashUtils.getCheckedDefaultValue
 import io.github.freya022.botcommands.internal.core.options.Option
 import io.github.freya022.botcommands.internal.core.options.OptionType
+import io.github.freya022.botcommands.internal.core.options.OptionValues
 import io.github.freya022.botcommands.internal.core.options.isRequired
+import io.github.freya022.botcommands.internal.core.reflection.FunctionArguments
 import io.github.freya022.botcommands.internal.core.reflection.checkEventScope
 import io.github.freya022.botcommands.internal.core.reflection.toMemberParamFunction
 import io.github.freya022.botcommands.internal.parameters.CustomMethodOption
@@ -23,8 +25,6 @@ import net.dv8tion.jda.api.events.Event
 import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent
 import net.dv8tion.jda.api.interactions.commands.CommandInteractionPayload
-import kotlin.reflect.KParameter
-import kotlin.reflect.full.callSuspendBy
 import kotlin.reflect.jvm.jvmErasure
 
 private val logger = KotlinLogging.logger { }
@@ -62,7 +62,7 @@ abstract class SlashCommandInfo internal constructor(
         }
 
         val objects = getSlashOptions(event, parameters) ?: return false
-        function.callSuspendBy(objects)
+        eventFunction.invoker.callSuspend(objects)
 
         return true
     }
@@ -71,7 +71,7 @@ abstract class SlashCommandInfo internal constructor(
     internal suspend fun <T> getSlashOptions(
         event: T,
         parameters: List<AbstractSlashCommandParameter>
-    ): Map<KParameter, Any?>? where T : CommandInteractionPayload, T : Event {
+    ): FunctionArguments? where T : CommandInteractionPayload, T : Event {
         val optionValues = parameters.mapOptions { option ->
             if (tryInsertOption(event, this, option) == InsertOptionResult.ABORT)
                 return null
@@ -82,7 +82,7 @@ abstract class SlashCommandInfo internal constructor(
 
     private suspend fun <T> tryInsertOption(
         event: T,
-        optionMap: MutableMap<Option, Any?>,
+        optionValues: OptionValues,
         option: Option
     ): InsertOptionResult where T : CommandInteractionPayload,
                                 T : Event {
@@ -139,6 +139,6 @@ abstract class SlashCommandInfo internal constructor(
             }
         }
 
-        return tryInsertNullableOption(value, option, optionMap)
+        return tryInsertNullableOption(value, option, optionValues)
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import io.github.freya022.botcommands.api.commands.application.slash.builder.Sla
 import io.github.freya022.botcommands.api.commands.application.slash.builder.SlashCommandOptionBuilder
 import io.github.freya022.botcommands.api.parameters.resolvers.SlashParameterResolver
 import io.github.freya022.botcommands.internal.commands.application.slash.autocomplete.AutocompleteHandler
+import io.github.freya022.botcommands.internal.commands.application.slash.autocomplete.AutocompleteInfoImpl
 import io.github.freya022.botcommands.internal.utils.LocalizationUtils
 import net.dv8tion.jda.api.interactions.commands.Command
 import net.dv8tion.jda.api.interactions.commands.OptionType
@@ -18,8 +19,9 @@ class SlashCommandOption(
 ) : AbstractSlashCommandOption(optionBuilder, resolver) {
     val description: String
 
+    internal val autocompleteInfo: AutocompleteInfoImpl? = optionBuilder.autocompleteInfo
     internal val autocompleteHandler by lazy {
-        when (val autocompleteInfo = optionBuilder.autocompleteInfo) {
+        when (autocompleteInfo) {
             null -> null
             else -> AutocompleteHandler(slashCommandInfo, optionAggregateBuilders, autocompleteInfo)
         }
@@ -25,7 +25,6 @@ import io.github.freya022.botcommands.internal.utils.throwUser
 import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent
 import net.dv8tion.jda.api.interactions.commands.Command
 import net.dv8tion.jda.api.interactions.commands.build.OptionData
-import kotlin.reflect.full.callSuspendBy
 import kotlin.reflect.full.findParameterByName
 import kotlin.reflect.jvm.jvmErasure
 import net.dv8tion.jda.api.interactions.commands.OptionType as JDAOptionType
@@ -60,12 +59,18 @@ internal class AutocompleteHandler(
             throwUser(slashCommandInfo.function, "\nCould not find options declared as $unmappedParameters, required by autocomplete function $autocompleteSignature")
         }
 
+        // The index is shared by all users and commands, items cannot depend on the other options
+        if (autocompleteInfo.staticItems && function.nonEventParameters.isNotEmpty())
+            throwUser(autocompleteInfo.function, "Static items cannot be used on autocomplete functions with parameters other than the event")
+
         val collectionElementType = autocompleteInfo.function.returnType.collectionElementType?.jvmErasure
             ?: throwUser("Unable to determine return type, it should inherit Collection")
 
         choiceSupplier = when {
             collectionElementType.isSubclassOfAny(String::class, Long::class, Double::class) ->
                 generateSupplierFromStrings(autocompleteInfo.mode)
+            autocompleteInfo.staticItems ->
+                throwUser(autocompleteInfo.function, "Static items can only be used on collections of String, Long or Double")
             collectionElementType.isSubclassOf<Command.Choice>() -> ChoiceSupplierChoices(maxChoices)
             else -> {
                 val transformer = slashCommandInfo.context.serviceContainer
@@ -83,11 +88,12 @@ internal class AutocompleteHandler(
     }
 
     private suspend fun generateChoices(event: CommandAutoCompleteInteractionEvent): List<Command.Choice> {
-        val objects = slashCommandInfo.getSlashOptions(event, parameters)
-            ?: return emptyList() //Autocomplete was triggered without all the required parameters being present
+        val suppliedChoices = when {
+            autocompleteInfo.staticItems -> getIndex(event)?.let { generateIndexedChoices(event, it) }
+            else -> getItems(event)?.let { choiceSupplier.apply(event, it) }
+        } ?: return emptyList() //Autocomplete was triggered without all the required parameters being present
 
         val actualChoices: MutableList<Command.Choice> = arrayOfSize(25)
-        val suppliedChoices = choiceSupplier.apply(event, autocompleteInfo.function.callSuspendBy(objects))
         val autoCompleteQuery = event.focusedOption
 
         //If something is typed but there are no choices, don't display user input
@@ -105,6 +111,25 @@ internal class AutocompleteHandler(
         return actualChoices
     }
 
+    private suspend fun getItems(event: CommandAutoCompleteInteractionEvent): Collection<Any>? {
+        val objects = slashCommandInfo.getSlashOptions(event, parameters) ?: return null
+        return eventFunction.invoker.callSuspend(objects)
+    }
+
+    private suspend fun getIndex(event: CommandAutoCompleteInteractionEvent): AutocompleteIndex? {
+        autocompleteInfo.index?.let { return it }
+
+        // Concurrent first calls may each build an index, only one of them is kept
+        val items = getItems(event) ?: return null
+        return AutocompleteIndex(items.map { it.toString() }).also { autocompleteInfo.index = it }
+    }
+
+    private fun generateIndexedChoices(event: CommandAutoCompleteInteractionEvent, index: AutocompleteIndex): List<Command.Choice> {
+        val autoCompleteQuery = event.focusedOption
+        return index.match(autocompleteInfo.mode, autoCompleteQuery.value, maxChoices)
+            .map { it.asChoice(autoCompleteQuery.type) ?: throw IllegalArgumentException("Malformed input for option type ${autoCompleteQuery.type}: '$it'") }
+    }
+
     private fun generateSupplierFromStrings(autocompleteMode: AutocompleteMode): ChoiceSupplier {
         return if (autocompleteMode == AutocompleteMode.FUZZY) {
             ChoiceSupplierStringFuzzy(maxChoices)
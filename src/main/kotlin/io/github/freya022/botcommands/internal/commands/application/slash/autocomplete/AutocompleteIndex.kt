@@ -0,0 +1,105 @@
+package io.github.freya022.botcommands.internal.commands.application.slash.autocomplete
+
+import gnu.trove.list.array.TIntArrayList
+import gnu.trove.map.hash.TIntIntHashMap
+import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteAlgorithms
+import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteMode
+import kotlin.math.min
+
+private const val MAX_GRAM_SIZE = 3
+// Number of candidates scored per requested result, candidates sharing the least n-grams are dropped first
+private const val CANDIDATES_PER_RESULT = 40
+
+/**
+ * Inverted n-gram index of the strings returned by an autocomplete handler with
+ * [static items][AutocompleteInfoImpl.staticItems].
+ *
+ * Queries only score the strings sharing n-grams with the query, using [AutocompleteAlgorithms],
+ * instead of computing the distance of every string.
+ * Prefix queries use a sorted copy of the strings.
+ *
+ * **Note:** With [AutocompleteMode.FUZZY], strings which share no n-grams with the query are not returned.
+ */
+internal class AutocompleteIndex(strings: Collection<String>) {
+    private val strings: Array<String> = strings.toTypedArray()
+    private val lowercaseStrings: Array<String> = Array(this.strings.size) { this.strings[it].lowercase() }
+
+    // Postings of the 1, 2 and 3-grams, the string indexes are in ascending order
+    private val postings: Array<Map<String, TIntArrayList>> = Array(MAX_GRAM_SIZE) { i ->
+        hashMapOf<String, TIntArrayList>().also { postings ->
+            lowercaseStrings.forEachIndexed { index, str ->
+                for (gram in str.grams(i + 1)) {
+                    postings.getOrPut(gram) { TIntArrayList() }.add(index)
+                }
+            }
+        }
+    }
+
+    // String indexes sorted by their lowercase string, then by index
+    private val sortedIndexes: IntArray = this.strings.indices
+        .sortedWith(compareBy<Int> { lowercaseStrings[it] }.thenBy { it })
+        .toIntArray()
+
+    // Results of the empty query, as every string has the same distance
+    private val sortedStrings: List<String> by lazy { this.strings.sorted() }
+
+    fun match(mode: AutocompleteMode, query: String, maxResults: Int): List<String> = when (mode) {
+        AutocompleteMode.FUZZY -> fuzzyMatching(query, maxResults)
+        AutocompleteMode.CONTINUITY -> fuzzyMatchingWithContinuity(query, maxResults)
+    }
+
+    private fun fuzzyMatching(query: String, maxResults: Int): List<String> {
+        if (query.isEmpty()) return sortedStrings.take(maxResults)
+
+        val gramSize = min(query.length, MAX_GRAM_SIZE)
+        val sharedGrams = TIntIntHashMap()
+        for (gram in query.lowercase().grams(gramSize)) {
+            postings[gramSize - 1][gram]?.forEach { index ->
+                sharedGrams.adjustOrPutValue(index, 1, 1)
+                true
+            }
+        }
+
+        var candidates = sharedGrams.keys()
+        val maxCandidates = maxResults * CANDIDATES_PER_RESULT
+        if (candidates.size > maxCandidates) {
+            candidates = candidates
+                .sortedByDescending { sharedGrams[it] }
+                .take(maxCandidates)
+                .toIntArray()
+        }
+        // Keep ties in the same order as the items
+        candidates.sort()
+
+        return AutocompleteAlgorithms.fuzzyMatching(candidates.map { strings[it] }, { it }, query, maxResults, parallel = true).map { it.string }
+    }
+
+    private fun fuzzyMatchingWithContinuity(query: String, maxResults: Int): List<String> {
+        val lowercaseQuery = query.lowercase()
+
+        // First string which is greater or equal than the query, i.e., the first string which can start with the query
+        var low = 0
+        var high = sortedIndexes.size
+        while (low < high) {
+            val mid = (low + high) ushr 1
+            if (lowercaseStrings[sortedIndexes[mid]] < lowercaseQuery) low = mid + 1 else high = mid
+        }
+
+        val candidates = TIntArrayList()
+        for (i in low until sortedIndexes.size) {
+            val index = sortedIndexes[i]
+            if (!lowercaseStrings[index].startsWith(lowercaseQuery)) break
+            candidates.add(index)
+        }
+        // Keep ties in the same order as the items
+        candidates.sort()
+
+        val candidateStrings = List(candidates.size()) { strings[candidates[it]] }
+        return AutocompleteAlgorithms.fuzzyMatchingWithContinuity(candidateStrings, { it }, query, maxResults, parallel = true).map { it.string }
+    }
+
+    private fun String.grams(size: Int): Set<String> {
+        if (length <= size) return setOf(this)
+        return (0..length - size).mapTo(hashSetOf()) { substring(it, it + size) }
+    }
+}
@@ -11,8 +11,10 @@ import io.github.freya022.botcommands.internal.core.requiredFilter
 import io.github.freya022.botcommands.internal.core.service.FunctionAnnotationsMap
 import io.github.freya022.botcommands.internal.utils.FunctionFilter
 import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent
+import java.time.Duration
 import kotlin.reflect.KFunction
 import kotlin.reflect.full.findAnnotation
+import kotlin.time.toKotlinDuration
 
 @BService
 internal class AutocompleteInfoAutoBuilder internal constructor() : AutocompleteHandlerProvider {
@@ -33,6 +35,7 @@ internal class AutocompleteInfoAutoBuilder internal constructor() : Autocomplete
 
                     mode = autocompleteHandlerAnnotation.mode
                     showUserInput = autocompleteHandlerAnnotation.showUserInput
+                    staticItems = autocompleteHandlerAnnotation.staticItems
 
                     autocompleteFunction.findAnnotation<CacheAutocomplete>()?.let { autocompleteCacheAnnotation ->
                         cache(autocompleteCacheAnnotation.cacheMode) {
@@ -43,6 +46,8 @@ internal class AutocompleteInfoAutoBuilder internal constructor() : Autocomplete
                             userLocal = autocompleteCacheAnnotation.userLocal
                             channelLocal = autocompleteCacheAnnotation.channelLocal
                             guildLocal = autocompleteCacheAnnotation.guildLocal
+                            if (autocompleteCacheAnnotation.refreshAfter > 0)
+                                refreshAfter = Duration.of(autocompleteCacheAnnotation.refreshAfter, autocompleteCacheAnnotation.refreshAfterUnit).toKotlinDuration()
                         }
                     }
                 }
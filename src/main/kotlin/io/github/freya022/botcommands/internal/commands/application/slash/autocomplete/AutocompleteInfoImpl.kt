@@ -22,15 +22,21 @@ internal class AutocompleteInfoImpl internal constructor(
     override val function get() = eventFunction.kFunction
     override val mode: AutocompleteMode = builder.mode
     override val showUserInput: Boolean = builder.showUserInput
+    override val staticItems: Boolean = builder.staticItems
 
     override val autocompleteCache: AutocompleteCacheInfo? = builder.autocompleteCache
 
     internal val cache = when {
         context.config.disableAutocompleteCache && builder.autocompleteCache?.force != true -> NoCacheAutocomplete
-        else -> AbstractAutocompleteCache.fromMode(this)
+        else -> AbstractAutocompleteCache.fromMode(context, this)
     }
 
+    // Built from the items of the first call when the items are static
+    @Volatile
+    internal var index: AutocompleteIndex? = null
+
     override fun invalidate() {
+        index = null
         cache.invalidate()
     }
 
@@ -2,6 +2,7 @@ package io.github.freya022.botcommands.internal.commands.application.slash.autoc
 
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteCacheMode
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteInfo
+import io.github.freya022.botcommands.api.core.BContext
 import io.github.freya022.botcommands.internal.commands.application.slash.autocomplete.AutocompleteHandler
 import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent
 import net.dv8tion.jda.api.interactions.commands.Command
@@ -17,11 +18,11 @@ internal sealed class AbstractAutocompleteCache {
 
     companion object {
         //In case more caches are to come
-        fun fromMode(autocompleteInfo: AutocompleteInfo): AbstractAutocompleteCache {
+        fun fromMode(context: BContext, autocompleteInfo: AutocompleteInfo): AbstractAutocompleteCache {
             val autocompleteCache = autocompleteInfo.autocompleteCache ?: return NoCacheAutocomplete
 
             return when (autocompleteCache.cacheMode) {
-                AutocompleteCacheMode.CONSTANT_BY_KEY -> ConstantByKeyAutocompleteCache(autocompleteCache)
+                AutocompleteCacheMode.CONSTANT_BY_KEY -> ConstantByKeyAutocompleteCache(context, autocompleteCache)
             }
         }
     }
@@ -1,21 +1,44 @@
 package io.github.freya022.botcommands.internal.commands.application.slash.autocomplete.caches
 
-import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.AsyncCache
 import com.github.benmanes.caffeine.cache.Caffeine
 import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteCacheInfo
+import io.github.freya022.botcommands.api.core.BContext
 import io.github.freya022.botcommands.internal.commands.application.slash.autocomplete.AutocompleteHandler
 import io.github.freya022.botcommands.internal.commands.application.slash.autocomplete.CompositeAutocompleteKey
-import kotlinx.coroutines.sync.Mutex
-import kotlinx.coroutines.sync.withLock
+import io.github.freya022.botcommands.internal.core.ExceptionHandler
+import io.github.freya022.botcommands.internal.utils.launchCatching
+import io.github.oshai.kotlinlogging.KotlinLogging
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.future.asDeferred
 import kotlinx.coroutines.withTimeout
 import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent
 import net.dv8tion.jda.api.interactions.commands.Command
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicBoolean
 import kotlin.time.Duration.Companion.minutes
+import kotlin.time.TimeSource
 
-internal class ConstantByKeyAutocompleteCache(cacheInfo: AutocompleteCacheInfo) : BaseAutocompleteCache(cacheInfo) {
-    private val cache: Cache<CompositeAutocompleteKey, List<Command.Choice>>
+private val logger = KotlinLogging.logger { }
+
+internal class ConstantByKeyAutocompleteCache(
+    context: BContext,
+    cacheInfo: AutocompleteCacheInfo
+) : BaseAutocompleteCache(cacheInfo) {
+    private class CachedChoices(val choices: List<Command.Choice>) {
+        val computedAt = TimeSource.Monotonic.markNow()
+        val isRefreshing = AtomicBoolean(false)
+    }
+
+    // Values are futures, so concurrent misses on a key wait for the same computation,
+    // while the other keys are still retrieved or computed independently
+    private val cache: AsyncCache<CompositeAutocompleteKey, CachedChoices>
     private val maxWeight: Long = cacheInfo.cacheSize * 1024
-    private val lock = Mutex()
+    private val refreshAfter = cacheInfo.refreshAfter
+    private val refreshScope = context.coroutineScopesConfig.applicationCommandsScope
+    private val exceptionHandler = ExceptionHandler(context, logger)
 
     init {
         cache = Caffeine.newBuilder()
@@ -25,8 +48,8 @@ internal class ConstantByKeyAutocompleteCache(cacheInfo: AutocompleteCacheInfo)
 //                }
 //            }
             .maximumWeight(maxWeight)
-            .weigher { k: CompositeAutocompleteKey, v: List<Command.Choice> -> getEntrySize(k, v) }
-            .build()
+            .weigher { k: CompositeAutocompleteKey, v: CachedChoices -> getEntrySize(k, v.choices) }
+            .buildAsync()
     }
 
     //Weight by the sum of the choice value lengths
@@ -40,17 +63,66 @@ internal class ConstantByKeyAutocompleteCache(cacheInfo: AutocompleteCacheInfo)
     ): List<Command.Choice> {
         val compositeKey = getCompositeKey(event)
 
-        return lock.withLock {
-            cache.getIfPresent(compositeKey)
-                ?: withTimeout(1.minutes) {
-                    valueComputer(event).also { computedChoices ->
-                        cache.put(compositeKey, computedChoices)
-                    }
+        while (true) {
+            val cachedFuture = cache.getIfPresent(compositeKey)
+            if (cachedFuture != null) {
+                val cachedChoices = try {
+                    // Do not cancel the shared future if this coroutine is cancelled, other callers may be waiting on it
+                    cachedFuture.asDeferred().await()
+                } catch (e: CancellationException) {
+                    // The coroutine computing the value was cancelled, compute it ourselves, unless we are the ones being cancelled
+                    currentCoroutineContext().ensureActive()
+                    cache.asMap().remove(compositeKey, cachedFuture)
+                    continue
                 }
+
+                if (refreshAfter != null && cachedChoices.computedAt.elapsedNow() >= refreshAfter)
+                    refreshAhead(compositeKey, cachedFuture, cachedChoices, event, valueComputer)
+                return cachedChoices.choices
+            }
+
+            val future = CompletableFuture<CachedChoices>()
+            // Another coroutine started computing the same key
+            if (cache.asMap().putIfAbsent(compositeKey, future) != null) continue
+
+            try {
+                val computedChoices = withTimeout(1.minutes) { valueComputer(event) }
+                future.complete(CachedChoices(computedChoices))
+                return computedChoices
+            } catch (e: Throwable) {
+                // Failed futures are removed from the cache
+                future.completeExceptionally(e)
+                throw e
+            }
+        }
+    }
+
+    /**
+     * Recomputes the choices in the background, while the current ones are still served,
+     * only one refresh runs per entry.
+     */
+    private fun refreshAhead(
+        compositeKey: CompositeAutocompleteKey,
+        cachedFuture: CompletableFuture<CachedChoices>,
+        cachedChoices: CachedChoices,
+        event: CommandAutoCompleteInteractionEvent,
+        valueComputer: suspend (CommandAutoCompleteInteractionEvent) -> List<Command.Choice>
+    ) {
+        if (!cachedChoices.isRefreshing.compareAndSet(false, true)) return
+
+        refreshScope.launchCatching({ e -> exceptionHandler.handleException(event, e, "autocomplete cache refresh") }) {
+            try {
+                val computedChoices = withTimeout(1.minutes) { valueComputer(event) }
+                // Do not replace the entry if it got invalidated in the meantime
+                cache.asMap().replace(compositeKey, cachedFuture, CompletableFuture.completedFuture(CachedChoices(computedChoices)))
+            } finally {
+                // Allow the next hit to retry if this refresh failed
+                cachedChoices.isRefreshing.set(false)
+            }
         }
     }
 
     override fun invalidate() {
-        cache.invalidateAll()
+        cache.synchronous().invalidateAll()
     }
-}
\ No newline at end of file
+}
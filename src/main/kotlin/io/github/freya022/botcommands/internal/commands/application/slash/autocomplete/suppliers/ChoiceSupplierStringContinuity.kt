@@ -12,9 +12,9 @@ internal class ChoiceSupplierStringContinuity(private val numChoices: Int) : Cho
         return AutocompleteAlgorithms.fuzzyMatchingWithContinuity(
             collection,
             { obj -> obj.toString() },
-            event.focusedOption.value
+            event.focusedOption.value,
+            numChoices
         )
-            .take(numChoices)
             .map { it.string.asChoice(autoCompleteQuery.type) ?: throw IllegalArgumentException("Malformed input for option type ${autoCompleteQuery.type}: '${it.string}'") }
     }
 }
\ No newline at end of file
@@ -9,8 +9,7 @@ internal class ChoiceSupplierStringFuzzy(private val numChoices: Int) : ChoiceSu
     @Throws(Exception::class)
     override fun apply(event: CommandAutoCompleteInteractionEvent, collection: Collection<Any>): List<Command.Choice> {
         val autoCompleteQuery = event.focusedOption
-        return AutocompleteAlgorithms.fuzzyMatching(collection, { it.toString() }, event.focusedOption.value)
-            .take(numChoices)
+        return AutocompleteAlgorithms.fuzzyMatching(collection, { it.toString() }, event.focusedOption.value, numChoices)
             .map { it.string.asChoice(autoCompleteQuery.type) ?: throw IllegalArgumentException("Malformed input for option type ${autoCompleteQuery.type}: '${it.string}'") }
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package io.github.freya022.botcommands.internal.commands.ratelimit
+
+import io.github.bucket4j.BucketExceptions
+import io.github.bucket4j.distributed.proxy.ClientSideConfig
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.AbstractSelectForUpdateBasedProxyManager
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.LockAndGetResult
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.SelectForUpdateBasedTransaction
+import io.github.bucket4j.distributed.remote.RemoteBucketState
+import io.github.freya022.botcommands.api.core.db.Database
+import io.github.freya022.botcommands.api.core.db.fetchConnectionJava
+import kotlinx.coroutines.Dispatchers
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.SQLException
+import java.sql.Timestamp
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicLong
+import java.time.Duration as JavaDuration
+
+/**
+ * Stores the state of the buckets from a rate limiter in the `bc_rate_limit_bucket` table,
+ * the rows are locked while the bucket is being used, so the state is shared across all instances using the same database.
+ *
+ * Bucket4j calls are blocking, so are the database operations, buckets must be used on [Dispatchers.IO].
+ *
+ * Rows expire once the bucket would be entirely refilled, as it is then equivalent to a new bucket,
+ * expired rows are deleted at most once per [refill duration][refillDuration], when a transaction starts.
+ */
+internal class DatabaseBucketProxyManager internal constructor(
+    private val database: Database,
+    private val groupName: String,
+    private val refillDuration: JavaDuration
+) : AbstractSelectForUpdateBasedProxyManager<RateLimitKey>(ClientSideConfig.getDefault()) {
+    private val nextCleanupNanos = AtomicLong(System.nanoTime())
+
+    override fun allocateTransaction(key: RateLimitKey): SelectForUpdateBasedTransaction {
+        val connection = wrapSqlException { database.fetchConnectionJava() }
+        try {
+            deleteExpiredBuckets(connection)
+        } catch (e: Throwable) {
+            runCatching { connection.close() }.onFailure { e.addSuppressed(it) }
+            throw e
+        }
+
+        return object : SelectForUpdateBasedTransaction {
+            override fun begin() = wrapSqlException {
+                connection.autoCommit = false
+            }
+
+            override fun rollback() = wrapSqlException {
+                connection.rollback()
+            }
+
+            override fun commit() = wrapSqlException {
+                connection.commit()
+            }
+
+            override fun tryLockAndGet(): LockAndGetResult = wrapSqlException {
+                connection.prepareKeyStatement(
+                    "select state from bc_rate_limit_bucket where group_name = ? and place_id = ? and user_id = ? for update",
+                    key
+                ).use { statement ->
+                    statement.executeQuery().use { resultSet ->
+                        when {
+                            resultSet.next() -> LockAndGetResult.locked(resultSet.getBytes("state"))
+                            else -> LockAndGetResult.notLocked()
+                        }
+                    }
+                }
+            }
+
+            override fun tryInsertEmptyData(): Boolean = wrapSqlException {
+                connection.prepareKeyStatement(
+                    "insert into bc_rate_limit_bucket (group_name, place_id, user_id, state, expiration_timestamp) values (?, ?, ?, null, ?) on conflict do nothing",
+                    key
+                ).use { statement ->
+                    statement.setTimestamp(4, getExpirationTimestamp())
+                    statement.executeUpdate() > 0
+                }
+            }
+
+            override fun update(data: ByteArray, newState: RemoteBucketState) = wrapSqlException {
+                connection.prepareStatement("update bc_rate_limit_bucket set state = ?, expiration_timestamp = ? where group_name = ? and place_id = ? and user_id = ?").use { statement ->
+                    statement.setBytes(1, data)
+                    statement.setTimestamp(2, getExpirationTimestamp())
+                    statement.setKey(3, key)
+                    statement.executeUpdate()
+                }
+                Unit
+            }
+
+            override fun release() = wrapSqlException {
+                connection.close()
+            }
+        }
+    }
+
+    override fun removeProxy(key: RateLimitKey) {
+        wrapSqlException {
+            database.fetchConnectionJava().use { connection ->
+                connection.prepareKeyStatement("delete from bc_rate_limit_bucket where group_name = ? and place_id = ? and user_id = ?", key)
+                    .use { statement -> statement.executeUpdate() }
+            }
+        }
+    }
+
+    // Unused, select-for-update managers do not support async mode
+    override fun removeAsync(key: RateLimitKey): CompletableFuture<Void> =
+        throw UnsupportedOperationException("Async mode is not supported")
+
+    private fun deleteExpiredBuckets(connection: Connection) {
+        val nextCleanup = nextCleanupNanos.get()
+        // Only one transaction cleans up per period
+        if (System.nanoTime() - nextCleanup < 0) return
+        if (!nextCleanupNanos.compareAndSet(nextCleanup, System.nanoTime() + refillDuration.toNanos())) return
+
+        wrapSqlException {
+            connection.prepareStatement("delete from bc_rate_limit_bucket where group_name = ? and expiration_timestamp < ?").use { statement ->
+                statement.setString(1, groupName)
+                statement.setTimestamp(2, Timestamp.from(Instant.now()))
+                statement.executeUpdate()
+            }
+        }
+    }
+
+    private fun getExpirationTimestamp(): Timestamp = Timestamp.from(Instant.now().plus(refillDuration))
+
+    private fun Connection.prepareKeyStatement(sql: String, key: RateLimitKey): PreparedStatement =
+        prepareStatement(sql).also { it.setKey(1, key) }
+
+    private fun PreparedStatement.setKey(startIndex: Int, key: RateLimitKey) {
+        setString(startIndex, groupName)
+        setLong(startIndex + 1, key.placeId)
+        setLong(startIndex + 2, key.userId)
+    }
+
+    private inline fun <R> wrapSqlException(block: () -> R): R {
+        try {
+            return block()
+        } catch (e: SQLException) {
+            throw BucketExceptions.executionException(e)
+        }
+    }
+}
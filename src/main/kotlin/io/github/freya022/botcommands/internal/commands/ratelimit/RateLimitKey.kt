@@ -0,0 +1,76 @@
+package io.github.freya022.botcommands.internal.commands.ratelimit
+
+import io.github.freya022.botcommands.api.commands.ratelimit.RateLimitScope
+import io.github.freya022.botcommands.api.commands.ratelimit.bucket.BucketFactory
+import io.github.freya022.botcommands.internal.utils.throwInternal
+import io.github.oshai.kotlinlogging.KotlinLogging
+import net.dv8tion.jda.api.entities.UserSnowflake
+import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent
+import java.time.Duration as JavaDuration
+
+private val logger = KotlinLogging.logger { }
+
+/**
+ * Identifies a bucket inside a rate limiter, depending on its [RateLimitScope].
+ */
+// IDs are 0 when absent, as Discord IDs cannot be 0
+@JvmRecord
+internal data class RateLimitKey(val placeId: Long, val userId: Long) {
+    init {
+        if (placeId == 0L && userId == 0L)
+            throwInternal("Rate limiting cannot be done on an empty key")
+    }
+}
+
+internal fun MessageReceivedEvent.toRateLimitKey(scope: RateLimitScope): RateLimitKey {
+    if (!isFromGuild) throwInternal("Invalid rate limit scope for text commands")
+    return when (scope) {
+        RateLimitScope.USER -> RateLimitKey(0, author.idLong)
+        RateLimitScope.USER_PER_GUILD -> RateLimitKey(guild.idLong, author.idLong)
+        RateLimitScope.USER_PER_CHANNEL -> RateLimitKey(channel.idLong, author.idLong)
+        RateLimitScope.GUILD -> RateLimitKey(guild.idLong, 0)
+        RateLimitScope.CHANNEL -> RateLimitKey(channel.idLong, 0)
+    }
+}
+
+internal fun GenericInteractionCreateEvent.toRateLimitKey(scope: RateLimitScope): RateLimitKey {
+    return when (scope) {
+        RateLimitScope.USER -> RateLimitKey(0, user.idLong)
+        RateLimitScope.USER_PER_GUILD -> {
+            val guild = guild ?: return fallbackUserKey(user)
+            RateLimitKey(guild.idLong, user.idLong)
+        }
+        RateLimitScope.USER_PER_CHANNEL -> {
+            if (isFromGuild) RateLimitKey(guildChannel.idLong, user.idLong) else fallbackUserKey(user)
+        }
+        RateLimitScope.GUILD -> {
+            val guild = guild ?: return fallbackUserKey(user)
+            RateLimitKey(guild.idLong, 0)
+        }
+        RateLimitScope.CHANNEL -> {
+            if (isFromGuild) RateLimitKey(guildChannel.idLong, 0) else fallbackUserKey(user)
+        }
+    }
+}
+
+private fun fallbackUserKey(user: UserSnowflake): RateLimitKey {
+    logger.warn {
+        "Tried to get an invalid rate limit bucket, rate limiters outside of guilds must only use the ${RateLimitScope.USER} scope. " +
+                "Returning an user bucket instead."
+    }
+    return RateLimitKey(0, user.idLong)
+}
+
+/**
+ * Returns the time it takes for an empty bucket to be entirely refilled.
+ */
+internal fun BucketFactory.getRefillDuration(): JavaDuration {
+    val bandwidths = createBucket().asVerbose().availableTokens.configuration.bandwidths
+    val refillNanos = bandwidths.maxOf { bandwidth ->
+        // Round up, intervally refills only add tokens once the entire period has elapsed
+        val refillCount = (bandwidth.capacity + bandwidth.refillTokens - 1) / bandwidth.refillTokens
+        refillCount * bandwidth.refillPeriodNanos
+    }
+    return JavaDuration.ofNanos(refillNanos)
+}
@@ -1,6 +1,8 @@
 package io.github.freya022.botcommands.internal.commands.ratelimit
 
 import io.github.bucket4j.Bucket
+import io.github.bucket4j.ConsumptionProbe
+import io.github.bucket4j.distributed.BucketProxy
 import io.github.freya022.botcommands.api.commands.CommandPath
 import io.github.freya022.botcommands.api.commands.ratelimit.CancellableRateLimit
 import io.github.freya022.botcommands.api.commands.ratelimit.RateLimitInfo
@@ -9,6 +11,9 @@ import io.github.freya022.botcommands.api.core.service.getService
 import io.github.freya022.botcommands.internal.commands.application.ApplicationCommandInfo
 import io.github.freya022.botcommands.internal.commands.text.TextCommandInfo
 import io.github.freya022.botcommands.internal.components.data.ComponentData
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.withContext
 import net.dv8tion.jda.api.events.interaction.command.GenericCommandInteractionEvent
 import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent
@@ -22,7 +27,7 @@ internal suspend fun TextCommandInfo.withRateLimit(context: BContext, event: Mes
     val rateLimitInfo = rateLimitInfo
     if (isNotOwner && rateLimitInfo != null) {
         val bucket = rateLimitInfo.limiter.getBucket(context, event, this)
-        val probe = bucket.tryConsumeAndReturnRemaining(1)
+        val probe = bucket.tryConsumeSuspend()
         if (probe.isConsumed) {
             runRateLimited(block, bucket)
         } else {
@@ -37,7 +42,7 @@ internal suspend fun ApplicationCommandInfo.withRateLimit(context: BContext, eve
     val rateLimitInfo = rateLimitInfo
     if (isNotOwner && rateLimitInfo != null) {
         val bucket = rateLimitInfo.limiter.getBucket(context, event, this)
-        val probe = bucket.tryConsumeAndReturnRemaining(1)
+        val probe = bucket.tryConsumeSuspend()
         if (probe.isConsumed) {
             runRateLimited(block, bucket)
         } else {
@@ -52,7 +57,7 @@ internal suspend fun ComponentData.withRateLimit(context: BContext, event: Gener
     val rateLimitInfo = this.rateLimitGroup?.let { context.getService<RateLimitContainer>()[it] }
     if (isNotOwner && rateLimitInfo != null) {
         val bucket = rateLimitInfo.limiter.getBucket(context, event)
-        val probe = bucket.tryConsumeAndReturnRemaining(1)
+        val probe = bucket.tryConsumeSuspend()
         if (probe.isConsumed) {
             runRateLimited(block, bucket)
         } else {
@@ -63,14 +68,27 @@ internal suspend fun ComponentData.withRateLimit(context: BContext, event: Gener
     }
 }
 
+// Distributed buckets may block while accessing their storage
+private val Bucket.isBlocking: Boolean get() = this is BucketProxy
+
+private suspend fun Bucket.tryConsumeSuspend(): ConsumptionProbe = when {
+    isBlocking -> withContext(Dispatchers.IO) { tryConsumeAndReturnRemaining(1) }
+    else -> tryConsumeAndReturnRemaining(1)
+}
+
+private suspend fun CancellableRateLimit.cancelRateLimitSuspend(bucket: Bucket) = when {
+    bucket.isBlocking -> withContext(Dispatchers.IO + NonCancellable) { cancelRateLimit() }
+    else -> cancelRateLimit()
+}
+
 private suspend inline fun runRateLimited(noinline block: suspend (CancellableRateLimit) -> Boolean, bucket: Bucket) {
     val cancellableRateLimit = CancellableRateLimitImpl(bucket)
     try {
         if (!block(cancellableRateLimit)) {
-            cancellableRateLimit.cancelRateLimit()
+            cancellableRateLimit.cancelRateLimitSuspend(bucket)
         }
     } catch (e: Throwable) {
-        cancellableRateLimit.cancelRateLimit()
+        cancellableRateLimit.cancelRateLimitSuspend(bucket)
         throw e
     }
 }
\ No newline at end of file
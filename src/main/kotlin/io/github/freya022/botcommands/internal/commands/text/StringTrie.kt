@@ -0,0 +1,64 @@
+package io.github.freya022.botcommands.internal.commands.text
+
+/**
+ * Immutable character trie, used to match command names and prefixes
+ * directly on the message content, without splitting or copying it.
+ *
+ * Children are stored in sorted arrays, and found by binary search.
+ */
+internal class StringTrie<T : Any>(entries: Map<String, T>) {
+    // Not private as it is used by inline functions
+    class Node<T : Any>(val chars: CharArray, val children: Array<Node<T>>, val value: T?) {
+        fun getChild(char: Char): Node<T>? {
+            val index = chars.binarySearch(char)
+            return if (index >= 0) children[index] else null
+        }
+    }
+
+    private class NodeBuilder<T : Any> {
+        val children: MutableMap<Char, NodeBuilder<T>> = sortedMapOf()
+        var value: T? = null
+
+        fun build(): Node<T> {
+            return Node(children.keys.toCharArray(), children.values.map { it.build() }.toTypedArray(), value)
+        }
+    }
+
+    val root: Node<T> = NodeBuilder<T>().also { root ->
+        entries.forEach { (key, value) ->
+            var node = root
+            for (char in key) {
+                node = node.children.getOrPut(char) { NodeBuilder() }
+            }
+            node.value = value
+        }
+    }.build()
+
+    /**
+     * Returns the value of the string between [start] (inclusive) and [end] (exclusive) of [text],
+     * or `null` if there is none.
+     */
+    operator fun get(text: CharSequence, start: Int, end: Int): T? {
+        var node = root
+        for (i in start..<end) {
+            node = node.getChild(text[i]) ?: return null
+        }
+        return node.value
+    }
+
+    /**
+     * Calls [block] with the length and value of every string which starts [text], from the shortest to the longest.
+     *
+     * Only the characters of the longest string are read.
+     */
+    inline fun forEachPrefixOf(text: CharSequence, block: (length: Int, value: T) -> Unit) {
+        var node = root
+        var length = 0
+        while (true) {
+            node.value?.let { block(length, it) }
+            if (length == text.length) return
+            node = node.getChild(text[length]) ?: return
+            length++
+        }
+    }
+}
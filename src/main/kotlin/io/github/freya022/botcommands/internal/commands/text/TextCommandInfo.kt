@@ -36,4 +36,10 @@ sealed class TextCommandInfo(
             }
         }
     }
-}
\ No newline at end of file
+
+    // Names and aliases of the subcommands
+    internal val subcommandTrie: StringTrie<TextCommandInfo> by lazy { StringTrie(subcommands) }
+
+    // Complete patterns of the variations, joined to be matched at once
+    internal val variationMatcher: TextVariationMatcher by lazy { TextVariationMatcher(this) }
+}
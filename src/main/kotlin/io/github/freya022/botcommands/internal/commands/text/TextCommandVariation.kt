@@ -15,13 +15,13 @@ import io.github.freya022.botcommands.internal.IExecutableInteractionInfo
 import io.github.freya022.botcommands.internal.commands.application.slash.SlashUtils.getCheckedDefaultValue
 import io.github.freya022.botcommands.internal.core.options.Option
 import io.github.freya022.botcommands.internal.core.options.OptionType
+import io.github.freya022.botcommands.internal.core.options.OptionValues
 import io.github.freya022.botcommands.internal.core.reflection.toMemberParamFunction
 import io.github.freya022.botcommands.internal.parameters.CustomMethodOption
 import io.github.freya022.botcommands.internal.transform
 import io.github.freya022.botcommands.internal.utils.*
 import io.github.oshai.kotlinlogging.KotlinLogging
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent
-import kotlin.reflect.full.callSuspendBy
 import kotlin.reflect.jvm.jvmErasure
 
 private val logger = KotlinLogging.logger { }
@@ -71,9 +71,15 @@ class TextCommandVariation internal constructor(
         else -> BaseCommandEventImpl(context, jdaEvent, args, cancellableRateLimit)
     }
 
-    internal suspend fun tryParseOptionValues(event: BaseCommandEvent, args: String, matchResult: MatchResult?): Map<Option, Any?>? {
-        val groupsIterator = matchResult?.groups?.iterator()
-        groupsIterator?.next() //Skip entire match
+    /**
+     * @param firstGroup Index of the group preceding the first group of this variation,
+     * `0` when [matchResult] comes from [completePattern]
+     */
+    internal suspend fun tryParseOptionValues(event: BaseCommandEvent, args: String, matchResult: MatchResult?, firstGroup: Int): OptionValues? {
+        //Skip entire match, or the groups of the previous variations
+        val groupsIterator = matchResult?.groups?.let { groups ->
+            (firstGroup + 1..<groups.size).asSequence().map { groups[it] }.iterator()
+        }
 
         return parameters.mapOptions { option ->
             if (tryInsertOption(event, this, option, groupsIterator, args) == InsertOptionResult.ABORT)
@@ -83,11 +89,11 @@ class TextCommandVariation internal constructor(
 
     internal suspend fun execute(
         event: BaseCommandEvent,
-        optionValues: Map<Option, Any?>
+        optionValues: OptionValues
     ): ExecutionResult {
         val finalParameters = parameters.mapFinalParameters(event, optionValues)
 
-        function.callSuspendBy(finalParameters)
+        eventFunction.invoker.callSuspend(finalParameters)
 
         return ExecutionResult.OK
     }
@@ -99,7 +105,7 @@ class TextCommandVariation internal constructor(
      */
     private suspend fun tryInsertOption(
         event: BaseCommandEvent,
-        optionMap: MutableMap<Option, Any?>,
+        optionValues: OptionValues,
         option: Option,
         groupsIterator: Iterator<MatchGroup?>?,
         args: String
@@ -154,6 +160,6 @@ class TextCommandVariation internal constructor(
             else -> throwInternal("${option.optionType} has not been implemented")
         }
 
-        return tryInsertNullableOption(value, option, optionMap)
+        return tryInsertNullableOption(value, option, optionValues)
     }
 }
@@ -8,10 +8,17 @@ import io.github.freya022.botcommands.internal.utils.throwUser
 internal class TextCommandsContextImpl internal constructor() : TextCommandsContext {
     private val textCommandMap: MutableMap<String, TopLevelTextCommandInfo> = hashMapOf()
 
+    @Volatile
+    private var _textCommandTrie: StringTrie<TextCommandInfo>? = null
+    // Names and aliases of the top level commands
+    internal val textCommandTrie: StringTrie<TextCommandInfo>
+        get() = _textCommandTrie ?: StringTrie<TextCommandInfo>(textCommandMap).also { _textCommandTrie = it }
+
     override val rootCommands: Collection<TopLevelTextCommandInfo>
         get() = textCommandMap.values.toList()
 
     internal fun addTextCommand(commandInfo: TopLevelTextCommandInfo) {
+        _textCommandTrie = null
         (commandInfo.aliases + commandInfo.name).forEach { name ->
             textCommandMap.put(name, commandInfo)?.let {
                 throwUser(commandInfo.variations.first().function, "Text command with path '${commandInfo.path}' already exists")
@@ -1,9 +1,10 @@
 package io.github.freya022.botcommands.internal.commands.text
 
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
 import dev.minn.jda.ktx.coroutines.await
 import io.github.freya022.botcommands.api.commands.ratelimit.CancellableRateLimit
 import io.github.freya022.botcommands.api.commands.text.*
-import io.github.freya022.botcommands.api.core.BContext
 import io.github.freya022.botcommands.api.core.annotations.BEventListener
 import io.github.freya022.botcommands.api.core.checkFilters
 import io.github.freya022.botcommands.api.core.service.annotations.BService
@@ -12,6 +13,7 @@ import io.github.freya022.botcommands.api.core.utils.runIgnoringResponse
 import io.github.freya022.botcommands.internal.commands.Usability
 import io.github.freya022.botcommands.internal.commands.Usability.UnusableReason
 import io.github.freya022.botcommands.internal.commands.ratelimit.withRateLimit
+import io.github.freya022.botcommands.internal.core.BContextImpl
 import io.github.freya022.botcommands.internal.core.ExceptionHandler
 import io.github.freya022.botcommands.internal.utils.classRef
 import io.github.freya022.botcommands.internal.utils.launchCatching
@@ -24,11 +26,44 @@ import net.dv8tion.jda.api.requests.ErrorResponse
 import net.dv8tion.jda.api.requests.GatewayIntent
 
 private val logger = KotlinLogging.logger { }
-private val spacePattern = Regex("\\s+")
+
+// Same characters as \s in regexes
+private fun Char.isSpace() = this == ' ' || this == '\t' || this == '\n' || this == '\u000B' || this == '\u000C' || this == '\r'
+
+private fun String.skipSpaces(startIndex: Int): Int {
+    var index = startIndex
+    while (index < length && this[index].isSpace()) index++
+    return index
+}
+
+private fun String.findSpace(startIndex: Int): Int {
+    var index = startIndex
+    while (index < length && !this[index].isSpace()) index++
+    return index
+}
+
+// Maps the prefixes to their index in the list
+internal fun compilePrefixTrie(prefixes: List<String>): StringTrie<Int> =
+    StringTrie(buildMap { prefixes.forEachIndexed { index, prefix -> putIfAbsent(prefix, index) } })
+
+/**
+ * Returns the length of the first prefix of the list which [text] starts with, or `-1` if there is none.
+ */
+internal fun StringTrie<Int>.findFirstPrefixLength(text: CharSequence): Int {
+    var prefixIndex = Int.MAX_VALUE
+    var prefixLength = -1
+    forEachPrefixOf(text) { length, index ->
+        if (index < prefixIndex) {
+            prefixIndex = index
+            prefixLength = length
+        }
+    }
+    return prefixLength
+}
 
 @BService
 internal class TextCommandsListener internal constructor(
-    private val context: BContext,
+    private val context: BContextImpl,
     filters: List<TextCommandFilter<Any>>,
     rejectionHandler: TextCommandRejectionHandler<Any>?,
     private val suggestionSupplier: TextSuggestionSupplier = DefaultTextSuggestionSupplier,
@@ -37,6 +72,10 @@ internal class TextCommandsListener internal constructor(
     private data class CommandWithArgs(val command: TextCommandInfo, val args: String)
 
     private val scope = context.coroutineScopesConfig.textCommandsScope
+    // Most guilds share the same prefixes
+    private val prefixTries: Cache<List<String>, StringTrie<Int>> = Caffeine.newBuilder()
+        .maximumSize(1024)
+        .build()
     private val exceptionHandler = ExceptionHandler(context, logger)
 
     // Types are crosschecked anyway
@@ -96,27 +135,30 @@ internal class TextCommandsListener internal constructor(
         args: String,
         cancellableRateLimit: CancellableRateLimit
     ): Boolean {
-        commandInfo.variations.forEach {
-            val bcEvent = it.createEvent(event, args, cancellableRateLimit)
-
+        // Only the first matching variation is known, the following ones are matched separately if it does not execute
+        val match = commandInfo.variationMatcher.match(args)
+        commandInfo.variations.forEachIndexed { i, variation ->
             // null on a fallback command
-            val pattern = it.completePattern
+            val pattern = variation.completePattern
 
-            val executionResult = if (pattern == null) {
+            val executionResult = when {
                 //Fallback method
-                tryExecute(bcEvent, content, args, it, null)
-            } else {
-                //Regex text command
-                val matchResult = pattern.matchEntire(args)
-                if (matchResult != null) {
-                    tryExecute(bcEvent, content, args, it, matchResult)
-                } else {
-                    ExecutionResult.CONTINUE
+                pattern == null -> tryExecute(event, content, args, cancellableRateLimit, variation, null, 0)
+                //Regex text commands
+                match == null || i < match.variationIndex -> ExecutionResult.CONTINUE
+                i == match.variationIndex -> tryExecute(event, content, args, cancellableRateLimit, variation, match.matchResult, match.firstGroup)
+                else -> {
+                    val matchResult = pattern.matchEntire(args)
+                    if (matchResult != null) {
+                        tryExecute(event, content, args, cancellableRateLimit, variation, matchResult, 0)
+                    } else {
+                        ExecutionResult.CONTINUE
+                    }
                 }
             }
 
             when (executionResult) {
-                ExecutionResult.CONTINUE -> return@forEach //Check other variations
+                ExecutionResult.CONTINUE -> return@forEachIndexed //Check other variations
                 ExecutionResult.STOP -> return false
                 ExecutionResult.OK -> return true
             }
@@ -133,38 +175,41 @@ internal class TextCommandsListener internal constructor(
 
     private fun findCommandWithArgs(content: String, isNotOwner: Boolean): CommandWithArgs? {
         var commandInfo: TextCommandInfo? = null
-        val words: List<String> = spacePattern.split(content)
-        for (index in words.indices) {
-            when (val info = context.textCommandsContext.findTextCommand(words.subList(0, index + 1))) {
-                null -> break
-                else -> {
-                    if (info.hidden && isNotOwner) {
-                        //This will help us have the same behavior as if the command didn't exist
-                        continue
-                    } else {
-                        commandInfo = info
-                    }
-                }
+        var commandEnd = 0
+
+        // Walk the words until they no longer match a (sub)command
+        var trie = context.textCommandsContext.textCommandTrie
+        var wordStart = content.skipSpaces(0)
+        while (wordStart < content.length) {
+            val wordEnd = content.findSpace(wordStart)
+            val info = trie[content, wordStart, wordEnd] ?: break
+            //Hidden commands have the same behavior as if the command didn't exist
+            if (!info.hidden || !isNotOwner) {
+                commandInfo = info
+                commandEnd = wordEnd
             }
+
+            trie = info.subcommandTrie
+            wordStart = content.skipSpaces(wordEnd)
         }
 
         return commandInfo?.let {
             //Keep the part after the command paths
-            val args = (0..<commandInfo.path.nameCount).fold(content) { acc, i ->
-                acc.substringAfter(words[i])
-            }.trimStart()
-            CommandWithArgs(it, args)
+            CommandWithArgs(it, content.substring(commandEnd).trimStart())
         }
     }
 
     private fun getMsgNoPrefix(msg: String, guild: Guild): String? {
-        return getPrefixes(guild)
-            .find { prefix -> msg.startsWith(prefix) }
-            ?.let { prefix -> msg.substring(prefix.length).trim() }
+        val prefixTrie = prefixTries.get(getPrefixes(guild), ::compilePrefixTrie)
+
+        val prefixLength = prefixTrie.findFirstPrefixLength(msg)
+        if (prefixLength == -1) return null
+
+        return msg.substring(prefixLength).trim()
     }
 
     private fun getPrefixes(guild: Guild): List<String> {
-        context.settingsProvider?.let { settingsProvider ->
+        context.cachedSettingsProvider?.let { settingsProvider ->
             val prefixes = settingsProvider.getPrefixes(guild)
             if (!prefixes.isNullOrEmpty()) return prefixes
         }
@@ -201,13 +246,16 @@ internal class TextCommandsListener internal constructor(
     }
 
     private suspend fun tryExecute(
-        event: BaseCommandEvent,
+        jdaEvent: MessageReceivedEvent,
         content: String,
         args: String,
+        cancellableRateLimit: CancellableRateLimit,
         variation: TextCommandVariation,
-        matchResult: MatchResult?
+        matchResult: MatchResult?,
+        firstGroup: Int
     ): ExecutionResult {
-        val optionValues = variation.tryParseOptionValues(event, args, matchResult)
+        val event = variation.createEvent(jdaEvent, args, cancellableRateLimit)
+        val optionValues = variation.tryParseOptionValues(event, args, matchResult, firstGroup)
             ?: return ExecutionResult.CONTINUE //Go to next variation
 
         // At this point, we're sure that the command is executable
@@ -0,0 +1,77 @@
+package io.github.freya022.botcommands.internal.commands.text
+
+import io.github.freya022.botcommands.api.commands.CommandPath
+import io.github.oshai.kotlinlogging.KotlinLogging
+import java.util.regex.PatternSyntaxException
+
+private val logger = KotlinLogging.logger { }
+
+/**
+ * Matches the arguments against the [complete patterns][TextCommandVariation.completePattern]
+ * of all the variations of a text command, in a single pass.
+ *
+ * The patterns are joined in an alternation, where each branch is wrapped in a capturing group,
+ * as alternations are tried in order, the match is the one of the first variation accepting the arguments.
+ *
+ * If the patterns cannot be joined, for example when variations use the same named group,
+ * each pattern is tried separately.
+ */
+internal class TextVariationMatcher(
+    completePatterns: List<Regex?>,
+    private val commandPath: CommandPath
+) {
+    /**
+     * @param variationIndex Index of the matched pattern, i.e., of the matched variation in [TextCommandInfo.variations]
+     * @param firstGroup     Index of the group preceding the first group of the variation
+     */
+    class Match(val variationIndex: Int, val matchResult: MatchResult, val firstGroup: Int)
+
+    // Index of the variation of each branch, fallback variations have no branch
+    private val branchVariations: IntArray = completePatterns.indices
+        .filter { completePatterns[it] != null }
+        .toIntArray()
+    // Index of the group wrapping each branch
+    private val branchGroups = IntArray(branchVariations.size)
+    private val patterns: List<Regex> = branchVariations.map { completePatterns[it]!! }
+    private val combinedPattern: Regex? = when (patterns.size) {
+        0, 1 -> null
+        else -> buildCombinedPattern()
+    }
+
+    constructor(info: TextCommandInfo) : this(info.variations.map { it.completePattern }, info.path)
+
+    fun match(args: String): Match? {
+        if (combinedPattern == null) {
+            patterns.forEachIndexed { branch, pattern ->
+                val matchResult = pattern.matchEntire(args) ?: return@forEachIndexed
+                return Match(branchVariations[branch], matchResult, firstGroup = 0)
+            }
+            return null
+        }
+
+        val matchResult = combinedPattern.matchEntire(args) ?: return null
+        val groups = matchResult.groups
+        for (branch in branchGroups.indices) {
+            val branchGroup = branchGroups[branch]
+            if (groups[branchGroup] != null)
+                return Match(branchVariations[branch], matchResult, firstGroup = branchGroup)
+        }
+        return null
+    }
+
+    private fun buildCombinedPattern(): Regex? {
+        var group = 1
+        val pattern = patterns.withIndex().joinToString("|") { (branch, pattern) ->
+            branchGroups[branch] = group
+            group += 1 + pattern.toPattern().matcher("").groupCount()
+            "(${pattern.pattern})"
+        }
+
+        return try {
+            pattern.toRegex()
+        } catch (e: PatternSyntaxException) {
+            logger.debug(e) { "Could not join the patterns of $commandPath, patterns will be tried separately" }
+            null
+        }
+    }
+}
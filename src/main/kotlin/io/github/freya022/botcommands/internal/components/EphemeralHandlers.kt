@@ -1,22 +1,38 @@
 package io.github.freya022.botcommands.internal.components
 
-import java.util.concurrent.locks.ReentrantLock
-import kotlin.concurrent.withLock
+import gnu.trove.map.hash.TIntObjectHashMap
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.ReentrantReadWriteLock
+import kotlin.concurrent.read
+import kotlin.concurrent.write
+
+// Must be a power of two
+private const val STRIPE_COUNT = 16
 
 internal abstract class EphemeralHandlers<T> {
-    private val lock = ReentrantLock()
-    private val map = hashMapOf<Int, T>()
-    private var currentId: Int = 0
+    // Sequential IDs are spread evenly across stripes
+    private class Stripe<T> {
+        val lock = ReentrantReadWriteLock()
+        val map = TIntObjectHashMap<T>()
+    }
 
-    operator fun get(handlerId: Int): T? = map[handlerId]
+    private val stripes = Array(STRIPE_COUNT) { Stripe<T>() }
+    private val currentId = AtomicInteger()
 
-    fun put(handler: T) = lock.withLock {
-        val id = currentId++
-        map[id] = handler
-        return@withLock id
+    operator fun get(handlerId: Int): T? = stripe(handlerId).let { stripe ->
+        stripe.lock.read { stripe.map[handlerId] }
     }
 
-    fun remove(handlerId: Int) = lock.withLock {
-        map.remove(handlerId)
+    fun put(handler: T): Int {
+        val id = currentId.getAndIncrement()
+        val stripe = stripe(id)
+        stripe.lock.write { stripe.map.put(id, handler) }
+        return id
     }
-}
\ No newline at end of file
+
+    fun remove(handlerId: Int): T? = stripe(handlerId).let { stripe ->
+        stripe.lock.write { stripe.map.remove(handlerId) }
+    }
+
+    private fun stripe(handlerId: Int): Stripe<T> = stripes[handlerId and (STRIPE_COUNT - 1)]
+}
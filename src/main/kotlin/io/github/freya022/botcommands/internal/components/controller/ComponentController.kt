@@ -7,6 +7,7 @@ import io.github.freya022.botcommands.api.components.IdentifiableComponent
 import io.github.freya022.botcommands.api.components.annotations.RequiresComponents
 import io.github.freya022.botcommands.api.components.builder.BaseComponentBuilder
 import io.github.freya022.botcommands.api.components.builder.group.ComponentGroupBuilder
+import io.github.freya022.botcommands.api.components.data.ComponentCacheStats
 import io.github.freya022.botcommands.api.core.BContext
 import io.github.freya022.botcommands.api.core.Filter
 import io.github.freya022.botcommands.api.core.service.annotations.BService
@@ -15,25 +16,31 @@ import io.github.freya022.botcommands.api.core.utils.simpleNestedName
 import io.github.freya022.botcommands.internal.commands.ratelimit.RateLimitContainer
 import io.github.freya022.botcommands.internal.components.data.ComponentData
 import io.github.freya022.botcommands.internal.components.handler.EphemeralComponentHandlers
+import io.github.freya022.botcommands.internal.components.repositories.ComponentCache
 import io.github.freya022.botcommands.internal.components.repositories.ComponentRepository
 import io.github.freya022.botcommands.internal.components.timeout.EphemeralTimeoutHandlers
 import io.github.freya022.botcommands.internal.utils.classRef
 import io.github.freya022.botcommands.internal.utils.reference
 import kotlinx.coroutines.CancellableContinuation
-import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.suspendCancellableCoroutine
 import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent
 import java.util.concurrent.locks.ReentrantLock
 import kotlin.concurrent.withLock
+import kotlin.random.Random
 
 private const val PREFIX = "BotCommands-Components-"
 private const val PREFIX_LENGTH = PREFIX.length
+private const val SESSION_SEPARATOR = ':'
+
+// In-memory components are lost on restart, their IDs carry a session key so old IDs are not mistaken for new components
+private val sessionKey = Random.nextInt().toUInt().toString(36)
 
 @BService
 @RequiresComponents
 internal class ComponentController(
     val context: BContext,
     private val componentRepository: ComponentRepository,
+    private val componentCache: ComponentCache,
     private val ephemeralComponentHandlers: EphemeralComponentHandlers,
     private val ephemeralTimeoutHandlers: EphemeralTimeoutHandlers,
     private val timeoutManager: ComponentTimeoutManager
@@ -45,15 +52,35 @@ internal class ComponentController(
     private val lock = ReentrantLock()
 
     init {
-        runBlocking { componentRepository.scheduleExistingTimeouts(timeoutManager) }
+        timeoutManager.scheduleExistingTimeouts()
     }
 
     internal suspend inline fun <R> withNewComponent(builder: BaseComponentBuilder<*>, block: (internalId: Int, componentId: String) -> R): R {
-        val internalId = createComponent(builder)
+        val internalId = createComponents(listOf(builder)).single()
         return block(internalId, getComponentId(internalId))
     }
 
-    private suspend fun createComponent(builder: BaseComponentBuilder<*>): Int {
+    internal suspend inline fun <B : BaseComponentBuilder<*>, R> withNewComponents(builders: List<B>, block: (builder: B, internalId: Int, componentId: String) -> R): List<R> {
+        val internalIds = createComponents(builders)
+        return builders.mapIndexed { i, builder ->
+            val internalId = internalIds[i]
+            block(builder, internalId, getComponentId(internalId))
+        }
+    }
+
+    private suspend fun createComponents(builders: List<BaseComponentBuilder<*>>): List<Int> {
+        builders.forEach(::checkComponent)
+
+        return componentRepository.createComponents(builders)
+            .also { ids ->
+                builders.forEachIndexed { i, builder ->
+                    val timeout = builder.timeout ?: return@forEachIndexed
+                    timeoutManager.scheduleTimeout(ids[i], timeout.expirationTimestamp)
+                }
+            }
+    }
+
+    private fun checkComponent(builder: BaseComponentBuilder<*>) {
         builder.rateLimitGroup?.let { rateLimitGroup ->
             require(rateLimitGroup in rateLimitContainer) {
                 "Rate limit group '$rateLimitGroup' was not registered using ${classRef<RateLimitProvider>()}"
@@ -72,12 +99,6 @@ internal class ComponentController(
                         "See ${classRef<ComponentInteractionFilter<*>>()} for more details."
             }
         }
-
-        return componentRepository.createComponent(builder)
-            .also { id ->
-                val timeout = builder.timeout ?: return@also
-                timeoutManager.scheduleTimeout(id, timeout.expirationTimestamp)
-            }
     }
 
     suspend fun deleteComponent(component: ComponentData, throwTimeouts: Boolean) =
@@ -92,14 +113,20 @@ internal class ComponentController(
             .let { id -> ComponentGroup(this, id) }
     }
 
-    suspend fun deleteComponentsById(ids: List<Int>, throwTimeouts: Boolean) {
-        componentRepository.deleteComponentsById(ids).forEach { (componentId, ephemeralComponentHandlerId, ephemeralTimeoutHandlerId) ->
+    /**
+     * @return The IDs of the deleted components, including components deleted alongside their group
+     */
+    suspend fun deleteComponentsById(ids: List<Int>, throwTimeouts: Boolean): List<Int> {
+        return componentRepository.deleteComponentsById(ids).map { (componentId, ephemeralComponentHandlerId, ephemeralTimeoutHandlerId) ->
             ephemeralComponentHandlerId?.let { ephemeralComponentHandlers.remove(it) }
             ephemeralTimeoutHandlerId?.let { ephemeralTimeoutHandlers.remove(it) }
             timeoutManager.removeTimeouts(componentId, throwTimeouts)
+            componentId
         }
     }
 
+    fun getCacheStats(): ComponentCacheStats = componentCache.getStats()
+
     fun removeContinuations(componentId: Int): List<CancellableContinuation<*>> = lock.withLock {
         return continuationMap.remove(componentId) ?: emptyList()
     }
@@ -123,8 +150,23 @@ internal class ComponentController(
     internal companion object {
         internal fun isCompatibleComponent(id: String): Boolean = id.startsWith(PREFIX)
 
-        internal fun parseComponentId(id: String): Int = Integer.parseInt(id, PREFIX_LENGTH, id.length, 10)
+        /**
+         * Returns the internal ID of the component, or `null` if the in-memory component comes from a previous session.
+         */
+        internal fun parseComponentId(id: String): Int? {
+            val separatorIndex = id.indexOf(SESSION_SEPARATOR, PREFIX_LENGTH)
+            if (separatorIndex == -1)
+                return Integer.parseInt(id, PREFIX_LENGTH, id.length, 10)
+
+            if (id.substring(separatorIndex + 1) != sessionKey)
+                return null
+            return Integer.parseInt(id, PREFIX_LENGTH, separatorIndex, 10)
+        }
 
-        internal fun getComponentId(internalId: Int): String = PREFIX + internalId
+        internal fun getComponentId(internalId: Int): String = when {
+            // In-memory ephemeral components use negative IDs
+            internalId < 0 -> "$PREFIX$internalId$SESSION_SEPARATOR$sessionKey"
+            else -> PREFIX + internalId
+        }
     }
 }
\ No newline at end of file
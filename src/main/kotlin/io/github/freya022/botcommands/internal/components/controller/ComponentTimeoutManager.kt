@@ -6,10 +6,12 @@ import io.github.freya022.botcommands.api.components.annotations.RequiresCompone
 import io.github.freya022.botcommands.api.components.data.ComponentTimeoutData
 import io.github.freya022.botcommands.api.components.data.GroupTimeoutData
 import io.github.freya022.botcommands.api.core.BContext
+import io.github.freya022.botcommands.api.core.config.BComponentsConfig
 import io.github.freya022.botcommands.api.core.service.ServiceContainer
 import io.github.freya022.botcommands.api.core.service.annotations.BService
 import io.github.freya022.botcommands.api.core.service.lazy
 import io.github.freya022.botcommands.internal.components.ComponentType
+import io.github.freya022.botcommands.internal.components.data.ComponentData
 import io.github.freya022.botcommands.internal.components.data.ComponentGroupData
 import io.github.freya022.botcommands.internal.components.data.EphemeralTimeout
 import io.github.freya022.botcommands.internal.components.data.PersistentTimeout
@@ -21,18 +23,25 @@ import io.github.freya022.botcommands.internal.components.timeout.TimeoutHandler
 import io.github.freya022.botcommands.internal.core.ExceptionHandler
 import io.github.freya022.botcommands.internal.core.options.Option
 import io.github.freya022.botcommands.internal.core.options.OptionType
+import io.github.freya022.botcommands.internal.core.options.OptionValues
 import io.github.freya022.botcommands.internal.parameters.CustomMethodOption
 import io.github.freya022.botcommands.internal.utils.*
 import io.github.oshai.kotlinlogging.KotlinLogging
 import kotlinx.coroutines.CancellationException
-import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
 import kotlinx.datetime.Clock
 import kotlinx.datetime.Instant
-import kotlin.reflect.full.callSuspendBy
 import kotlin.reflect.jvm.jvmErasure
 
 private val logger = KotlinLogging.logger { }
 
+private const val EXPIRATION_BATCH_SIZE = 1000
+private const val MAX_CONCURRENT_TIMEOUT_HANDLERS = 16
+
 @BService
 @RequiresComponents
 internal class ComponentTimeoutManager(
@@ -44,31 +53,84 @@ internal class ComponentTimeoutManager(
 ) {
     private val exceptionHandler = ExceptionHandler(context, logger)
     private val componentController: ComponentController by serviceContainer.lazy()
-    private val timeoutMap = hashMapOf<Int, Job>()
+    private val timeoutScope = context.coroutineScopesConfig.componentTimeoutScope
+    private val timeoutWheel = TimingWheel<Unit>(timeoutScope) { expired ->
+        // Many timeouts can expire at once after downtime, keep queries reasonably sized
+        expired.keys().asList().chunked(EXPIRATION_BATCH_SIZE).forEach { ids ->
+            timeoutScope.launchCatching({ handleBatchException(ids, it) }) { onTimeouts(ids) }
+        }
+    }
+    private val handlerSemaphore = Semaphore(MAX_CONCURRENT_TIMEOUT_HANDLERS)
+
+    /**
+     * Schedules the persistent timeouts stored in the database,
+     * either all at once, or progressively if a [load window][BComponentsConfig.persistentTimeoutLoadWindow] is set.
+     */
+    fun scheduleExistingTimeouts() {
+        val loadWindow = context.componentsConfig.persistentTimeoutLoadWindow
+        if (loadWindow.isInfinite()) {
+            runBlocking { componentRepository.scheduleExistingTimeouts(this@ComponentTimeoutManager) }
+            return
+        }
+
+        require(loadWindow.isPositive()) {
+            "${BComponentsConfig::persistentTimeoutLoadWindow.reference} must be positive"
+        }
+
+        timeoutScope.launch {
+            // Each load starts where the previous one ended,
+            // loading twice per window guarantees timeouts are scheduled before expiring
+            var loadedUntil: Instant? = null
+            while (true) {
+                val until = Clock.System.now() + loadWindow
+                try {
+                    val count = componentRepository.scheduleExistingTimeouts(this@ComponentTimeoutManager, loadedUntil, until)
+                    logger.trace { "Scheduled $count persistent timeouts expiring until $until" }
+                    loadedUntil = until
+                } catch (e: CancellationException) {
+                    throw e
+                } catch (e: Throwable) {
+                    exceptionHandler.handleException(null, e, "persistent timeout loading")
+                }
+
+                delay(loadWindow / 2)
+            }
+        }
+    }
 
     fun scheduleTimeout(id: Int, expirationTimestamp: Instant) {
-        val delay = expirationTimestamp - Clock.System.now()
-        timeoutMap[id] = context.coroutineScopesConfig.componentTimeoutScope.launchCatchingDelayed(
-            delay,
-            { handleTimeoutException(id, it) },
-            { onTimeout(id) }
-        )
+        timeoutWheel.schedule(id, expirationTimestamp - Clock.System.now(), Unit)
     }
 
     private fun handleTimeoutException(id: Int, e: Throwable) {
         exceptionHandler.handleException(null, e, "component timeout handler", mapOf("Component ID" to id))
     }
 
-    private suspend fun onTimeout(id: Int) {
-        //Remove the ID from the timeout map even if the component doesn't exist (might have been cleaned earlier)
-        timeoutMap.remove(id)
+    private fun handleBatchException(ids: List<Int>, e: Throwable) {
+        exceptionHandler.handleException(null, e, "component timeout expiration", mapOf("Component IDs" to ids))
+    }
 
-        val component = componentRepository.getComponent(id)
-            ?: return logger.warn { "Component $id was still timeout scheduled after being deleted" }
+    private suspend fun onTimeouts(ids: List<Int>) {
+        val components = componentRepository.getComponents(ids)
+        if (components.size != ids.size) {
+            val missingIds = ids - components.mapTo(hashSetOf()) { it.internalId }
+            logger.warn { "Components ${missingIds.joinToString()} were still timeout scheduled after being deleted" }
+        }
 
         //Will also cancel timeouts of related components
-        componentController.deleteComponent(component, throwTimeouts = true)
+        val deletedIds = componentController.deleteComponentsById(components.map { it.internalId }, throwTimeouts = true).toHashSet()
+
+        components.forEach { component ->
+            // Only run handlers of the components this batch has deleted
+            if (component.internalId !in deletedIds) return@forEach
 
+            timeoutScope.launchCatching({ handleTimeoutException(component.internalId, it) }) {
+                handlerSemaphore.withPermit { runTimeoutHandler(component) }
+            }
+        }
+    }
+
+    private suspend fun runTimeoutHandler(component: ComponentData) {
         when (val componentTimeout = component.timeout) {
             is PersistentTimeout -> {
                 val handlerName = componentTimeout.handlerName ?: return
@@ -114,7 +176,7 @@ internal class ComponentTimeoutManager(
                     return false
             }
 
-            function.callSuspendBy(parameters.mapFinalParameters(firstArgument, optionValues))
+            eventFunction.invoker.callSuspend(parameters.mapFinalParameters(firstArgument, optionValues))
         }
         return true
     }
@@ -122,7 +184,7 @@ internal class ComponentTimeoutManager(
     private suspend fun tryInsertOption(
         descriptor: TimeoutDescriptor<*>,
         option: Option,
-        optionMap: MutableMap<Option, Any?>,
+        optionValues: OptionValues,
         userDataIterator: Iterator<String?>
     ): InsertOptionResult {
         val value = when (option.optionType) {
@@ -141,12 +203,16 @@ internal class ComponentTimeoutManager(
             else -> throwInternal("${option.optionType} has not been implemented")
         }
 
-        return tryInsertNullableOption(value, option, optionMap)
+        return tryInsertNullableOption(value, option, optionValues)
     }
 
-    fun removeTimeouts(componentId: Int, throwTimeouts: Boolean) {
+    fun cancelTimeout(componentId: Int) {
         logger.trace { "Cancelled timeout for component $componentId" }
-        timeoutMap.remove(componentId)?.cancel()
+        timeoutWheel.cancel(componentId)
+    }
+
+    fun removeTimeouts(componentId: Int, throwTimeouts: Boolean) {
+        cancelTimeout(componentId)
 
         val continuations = componentController.removeContinuations(componentId)
         if (continuations.isEmpty()) return
@@ -31,6 +31,7 @@ import io.github.freya022.botcommands.internal.components.repositories.Component
 import io.github.freya022.botcommands.internal.core.ExceptionHandler
 import io.github.freya022.botcommands.internal.core.options.Option
 import io.github.freya022.botcommands.internal.core.options.OptionType
+import io.github.freya022.botcommands.internal.core.options.OptionValues
 import io.github.freya022.botcommands.internal.core.options.isRequired
 import io.github.freya022.botcommands.internal.parameters.CustomMethodOption
 import io.github.freya022.botcommands.internal.utils.*
@@ -41,7 +42,6 @@ import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteract
 import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent
 import kotlin.coroutines.Continuation
 import kotlin.coroutines.resume
-import kotlin.reflect.full.callSuspendBy
 
 private val logger = KotlinLogging.logger { }
 
@@ -53,6 +53,7 @@ internal class ComponentsListener(
     rejectionHandler: ComponentInteractionRejectionHandler<Any>?,
     private val componentRepository: ComponentRepository,
     private val componentController: ComponentController,
+    private val deferredComponentDeleter: DeferredComponentDeleter,
     private val componentHandlerContainer: ComponentHandlerContainer
 ) {
     private val scope = context.coroutineScopesConfig.componentScope
@@ -77,12 +78,15 @@ internal class ComponentsListener(
                             "please only use ${classRef<Components>()} to make components or disable ${BComponentsConfigBuilder::useComponents.reference}" }
                 ComponentController.parseComponentId(id)
             }
-            val component = componentRepository.getComponent(componentId)
+            val component = componentId?.let { componentRepository.getComponent(it) }
                 ?: return@launch event.reply_(context.getDefaultMessages(event).componentExpiredErrorMsg, ephemeral = true).queue()
 
             if (component !is AbstractComponentData)
                 throwInternal("Somehow retrieved a non-executable component on a component interaction: $component")
 
+            if (deferredComponentDeleter.isConsumed(component))
+                return@launch event.reply_(context.getDefaultMessages(event).componentExpiredErrorMsg, ephemeral = true).queue()
+
             if (component.filters === ComponentFilters.INVALID_FILTERS) {
                 return@launch event.reply_(context.getDefaultMessages(event).componentNotAllowedErrorMsg, ephemeral = true).queue()
             }
@@ -113,12 +117,18 @@ internal class ComponentsListener(
                     }
                 }
 
+                // Concurrent uses are rejected, the component gets deleted later
+                if (component.oneUse && deferredComponentDeleter.isEnabled && !deferredComponentDeleter.consume(component)) {
+                    event.reply_(context.getDefaultMessages(event).componentExpiredErrorMsg, ephemeral = true).queue()
+                    return@withRateLimit false
+                }
+
                 // Resume coroutines before deleting the component,
                 // as it will also delete the continuations (that we already consume anyway)
                 val evt = transformEvent(event, cancellableRateLimit)
                 resumeCoroutines(component, evt)
 
-                if (component.oneUse) {
+                if (component.oneUse && !deferredComponentDeleter.isEnabled) {
                     // This shouldn't throw timeouts,
                     // but no timeouts will be thrown as all continuations have been consumed
                     // Thus, this helps see if an issue arises
@@ -203,7 +213,7 @@ internal class ComponentsListener(
                     return false
             }
 
-            function.callSuspendBy(parameters.mapFinalParameters(event, optionValues))
+            eventFunction.invoker.callSuspend(parameters.mapFinalParameters(event, optionValues))
         }
         return true
     }
@@ -220,7 +230,7 @@ internal class ComponentsListener(
         event: GenericComponentInteractionCreateEvent,
         descriptor: ComponentDescriptor,
         option: Option,
-        optionMap: MutableMap<Option, Any?>,
+        optionValues: OptionValues,
         userDataIterator: Iterator<String?>
     ): InsertOptionResult {
         val value = when (option.optionType) {
@@ -241,6 +251,6 @@ internal class ComponentsListener(
             else -> throwInternal("${option.optionType} has not been implemented")
         }
 
-        return tryInsertNullableOption(value, option, optionMap)
+        return tryInsertNullableOption(value, option, optionValues)
     }
 }
\ No newline at end of file
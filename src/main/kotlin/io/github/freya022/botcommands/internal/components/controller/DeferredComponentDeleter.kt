@@ -0,0 +1,143 @@
+package io.github.freya022.botcommands.internal.components.controller
+
+import gnu.trove.list.array.TIntArrayList
+import gnu.trove.set.hash.TIntHashSet
+import io.github.freya022.botcommands.api.components.annotations.RequiresComponents
+import io.github.freya022.botcommands.api.core.BContext
+import io.github.freya022.botcommands.api.core.annotations.BEventListener
+import io.github.freya022.botcommands.api.core.service.ServiceContainer
+import io.github.freya022.botcommands.api.core.service.annotations.BService
+import io.github.freya022.botcommands.api.core.service.lazy
+import io.github.freya022.botcommands.internal.components.data.ComponentData
+import io.github.freya022.botcommands.internal.core.ExceptionHandler
+import io.github.freya022.botcommands.internal.utils.launchCatching
+import io.github.oshai.kotlinlogging.KotlinLogging
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import net.dv8tion.jda.api.events.session.ShutdownEvent
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+import kotlin.time.Duration.Companion.minutes
+import kotlin.time.Duration.Companion.seconds
+
+private val logger = KotlinLogging.logger { }
+
+private val flushInterval = 1.seconds
+// Components might still be read from the cache or from an ongoing query after being deleted
+private val consumedRetention = 1.minutes
+
+/**
+ * Marks used one-use components as consumed, and deletes them periodically in batches.
+ *
+ * Consumed components are rejected immediately, before they are deleted.
+ */
+@BService
+@RequiresComponents
+internal class DeferredComponentDeleter(
+    private val context: BContext,
+    serviceContainer: ServiceContainer,
+    private val timeoutManager: ComponentTimeoutManager
+) {
+    val isEnabled: Boolean = context.componentsConfig.deferOneUseComponentDeletion
+
+    private val scope = context.coroutineScopesConfig.componentScope
+    private val exceptionHandler = ExceptionHandler(context, logger)
+    private val componentController: ComponentController by serviceContainer.lazy()
+
+    private val lock = ReentrantLock()
+    private val consumedIds = TIntHashSet()
+    private val pendingIds = TIntArrayList()
+    private var flushJob: Job? = null
+
+    fun isConsumed(component: ComponentData): Boolean {
+        if (!isEnabled) return false
+
+        return lock.withLock {
+            component.internalId in consumedIds || component.groupId?.let { it in consumedIds } == true
+        }
+    }
+
+    /**
+     * Marks the component, and its group, as consumed.
+     *
+     * @return `false` if the component was already consumed
+     */
+    fun consume(component: ComponentData): Boolean {
+        val ids = listOfNotNull(component.internalId, component.groupId)
+        lock.withLock {
+            if (ids.any { it in consumedIds }) return false
+
+            ids.forEach { id ->
+                consumedIds.add(id)
+                pendingIds.add(id)
+            }
+
+            if (flushJob == null)
+                flushJob = scope.launch { flushPeriodically() }
+        }
+
+        // Timeouts must not run on consumed components,
+        // continuations are still resumed by the listener, and canceled when the components get deleted
+        ids.forEach(timeoutManager::cancelTimeout)
+        return true
+    }
+
+    /**
+     * Deletes the pending components, as consumed components would be usable again after a restart.
+     *
+     * Components consumed by an ongoing flush are deleted by it.
+     */
+    @BEventListener
+    suspend fun onShutdown(event: ShutdownEvent) {
+        if (!isEnabled) return
+
+        val ids = lock.withLock {
+            pendingIds.toArray().also { pendingIds.resetQuick() }
+        }
+        if (ids.isEmpty()) return
+
+        try {
+            withContext(NonCancellable) {
+                componentController.deleteComponentsById(ids.asList(), throwTimeouts = false)
+            }
+            logger.debug { "Deleted ${ids.size} consumed components on shutdown" }
+        } catch (e: Exception) {
+            exceptionHandler.handleException(null, e, "one-use component deletion on shutdown", mapOf("Component IDs" to ids.asList()))
+        }
+    }
+
+    private suspend fun flushPeriodically() {
+        while (true) {
+            delay(flushInterval)
+
+            val ids = lock.withLock {
+                if (pendingIds.isEmpty) {
+                    flushJob = null
+                    return
+                }
+                pendingIds.toArray().also { pendingIds.resetQuick() }
+            }
+
+            try {
+                componentController.deleteComponentsById(ids.asList(), throwTimeouts = true)
+                logger.trace { "Deleted ${ids.size} consumed components" }
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: Exception) {
+                // Retry on the next flush
+                lock.withLock { pendingIds.addAll(ids) }
+                exceptionHandler.handleException(null, e, "one-use component deletion", mapOf("Component IDs" to ids.asList()))
+                continue
+            }
+
+            scope.launchCatching({ exceptionHandler.handleException(null, it, "consumed component release") }) {
+                delay(consumedRetention)
+                lock.withLock { consumedIds.removeAll(ids) }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.freya022.botcommands.internal.components.repositories
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import io.github.freya022.botcommands.api.components.annotations.RequiresComponents
+import io.github.freya022.botcommands.api.components.data.ComponentCacheStats
+import io.github.freya022.botcommands.api.core.config.BComponentsConfig
+import io.github.freya022.botcommands.api.core.service.annotations.BService
+import io.github.freya022.botcommands.internal.components.data.ComponentData
+import kotlin.time.Duration.Companion.minutes
+import kotlin.time.toJavaDuration
+
+/**
+ * Read-through cache of decoded components, keyed by their internal ID.
+ *
+ * Component IDs are never reused, so deleted IDs are remembered for a short time,
+ * preventing a concurrent lookup from caching a component which was deleted while being read.
+ */
+@BService
+@RequiresComponents
+internal class ComponentCache internal constructor(componentsConfig: BComponentsConfig) {
+    private val cache: Cache<Int, ComponentData>? = componentsConfig.componentCacheSize
+        .takeIf { it > 0 }
+        ?.let { maximumSize ->
+            Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build()
+        }
+
+    // Bounded like the component cache, mass deletions would otherwise keep all their IDs for a minute
+    private val deletedIds: Cache<Int, Unit>? = cache?.let {
+        Caffeine.newBuilder()
+            .maximumSize(componentsConfig.componentCacheSize)
+            .expireAfterWrite(1.minutes.toJavaDuration())
+            .build()
+    }
+
+    val isEnabled: Boolean get() = cache != null
+
+    operator fun get(id: Int): ComponentData? = cache?.getIfPresent(id)
+
+    fun put(component: ComponentData) {
+        val cache = cache ?: return
+        val id = component.internalId
+        cache.put(id, component)
+
+        // The component might have been deleted between the database read and now
+        if (deletedIds!!.getIfPresent(id) != null)
+            cache.invalidate(id)
+    }
+
+    /**
+     * Invalidates the components and prevents them from being cached again,
+     * must be called before the components are deleted from the database.
+     */
+    fun invalidateDeleted(ids: Collection<Int>) {
+        val cache = cache ?: return
+        ids.forEach { deletedIds!!.put(it, Unit) }
+        cache.invalidateAll(ids)
+    }
+
+    /**
+     * Invalidates components which have been modified, such as when they get added to a group.
+     */
+    fun invalidate(ids: Collection<Int>) {
+        cache?.invalidateAll(ids)
+    }
+
+    fun getStats(): ComponentCacheStats {
+        val stats = cache?.stats() ?: return ComponentCacheStats(0, 0)
+        return ComponentCacheStats(stats.hitCount(), stats.missCount())
+    }
+}
@@ -7,6 +7,8 @@ import io.github.freya022.botcommands.api.components.builder.ITimeoutableCompone
 import io.github.freya022.botcommands.api.components.builder.group.ComponentGroupBuilder
 import io.github.freya022.botcommands.api.components.data.ComponentTimeout
 import io.github.freya022.botcommands.api.components.data.InteractionConstraints
+import io.github.freya022.botcommands.api.core.db.DBResult
+import io.github.freya022.botcommands.api.core.db.SuspendingPreparedStatement
 import io.github.freya022.botcommands.api.core.db.Transaction
 import io.github.freya022.botcommands.api.core.db.transactional
 import io.github.freya022.botcommands.api.core.service.annotations.BService
@@ -23,11 +25,14 @@ import io.github.freya022.botcommands.internal.core.db.InternalDatabase
 import io.github.freya022.botcommands.internal.utils.throwInternal
 import io.github.freya022.botcommands.internal.utils.throwUser
 import io.github.oshai.kotlinlogging.KotlinLogging
+import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withContext
 import kotlinx.datetime.Instant
 import kotlinx.datetime.toJavaInstant
 import kotlinx.datetime.toKotlinInstant
 import net.dv8tion.jda.api.Permission
+import org.intellij.lang.annotations.Language
 import java.sql.Timestamp
 
 @BService
@@ -36,7 +41,9 @@ internal class ComponentRepository(
     private val database: InternalDatabase,
     private val ephemeralComponentHandlers: EphemeralComponentHandlers,
     private val ephemeralTimeoutHandlers: EphemeralTimeoutHandlers,
-    private val componentFilters: ComponentFilters
+    private val componentFilters: ComponentFilters,
+    private val componentCache: ComponentCache,
+    private val ephemeralComponentStore: EphemeralComponentStore
 ) {
     internal class DeletedComponent(val componentId: Int, val ephemeralComponentHandlerId: Int?, val ephemeralTimeoutHandlerId: Int?) {
         operator fun component1() = componentId
@@ -50,112 +57,256 @@ internal class ComponentRepository(
         cleanupEphemeral()
     }
 
-    suspend fun createComponent(builder: BaseComponentBuilder<*>): Int {
+    /**
+     * Creates all the components in a single transaction,
+     * each table is inserted into with a single batch.
+     *
+     * @return The IDs of the created components, in the same order as the [builders]
+     */
+    suspend fun createComponents(builders: List<BaseComponentBuilder<*>>): List<Int> {
+        if (builders.none(ephemeralComponentStore::canStore))
+            return createDatabaseComponents(builders)
+
+        val (inMemoryBuilders, databaseBuilders) = builders.partition(ephemeralComponentStore::canStore)
+        val inMemoryIds = ephemeralComponentStore.createComponents(inMemoryBuilders).iterator()
+        val databaseIds = createDatabaseComponents(databaseBuilders).iterator()
+
+        return builders.map { builder ->
+            if (ephemeralComponentStore.canStore(builder)) inMemoryIds.next() else databaseIds.next()
+        }
+    }
+
+    private suspend fun createDatabaseComponents(builders: List<BaseComponentBuilder<*>>): List<Int> {
+        if (builders.isEmpty()) return emptyList()
+
         return database.transactional {
-            // Create base component
-            val componentId: Int = insertBaseComponent(builder.componentType, builder.lifetimeType, builder.oneUse, builder.rateLimitGroup, getFilterNames(builder.filters))
+            // Create base components
+            val componentIds: List<Int> = preparedStatement(
+                "insert into bc_component (component_type, lifetime_type, one_use, rate_limit_group, filters) VALUES (?, ?, ?, ?, ?)",
+                columnNames = arrayOf("component_id")
+            ) {
+                builders.forEach { builder ->
+                    setParameters(arrayOf(builder.componentType.key, builder.lifetimeType.key, builder.oneUse, builder.rateLimitGroup, getFilterNames(builder.filters)))
+                    addBatch()
+                }
+                executeBatchSuspend()
+
+                generatedKeys.map { it.getInt("component_id") }
+            }
+
+            check(componentIds.size == builders.size) {
+                "Created ${componentIds.size} components but ${builders.size} were requested"
+            }
 
             // Add constraints
             preparedStatement("insert into bc_component_constraints (component_id, users, roles, permissions) VALUES (?, ?, ?, ?)") {
-                executeUpdate(
-                    componentId,
-                    builder.constraints.allowedUsers.toArray(),
-                    builder.constraints.allowedRoles.toArray(),
-                    Permission.getRaw(builder.constraints.allowingPermissions)
-                )
+                builders.forEachIndexed { i, builder ->
+                    setParameters(arrayOf(
+                        componentIds[i],
+                        builder.constraints.allowedUsers.toArray(),
+                        builder.constraints.allowedRoles.toArray(),
+                        Permission.getRaw(builder.constraints.allowingPermissions)
+                    ))
+                    addBatch()
+                }
+                executeBatchSuspend()
             }
 
-            // Add handler
-            val handler = builder.handler
-            if (handler is EphemeralHandler<*>) {
-                preparedStatement("insert into bc_ephemeral_handler (component_id, handler_id) VALUES (?, ?)") {
-                    executeUpdate(componentId, ephemeralComponentHandlers.put(handler))
-                }
-            } else if (handler is PersistentHandler) {
-                preparedStatement("insert into bc_persistent_handler (component_id, handler_name, user_data) VALUES (?, ?, ?)") {
-                    executeUpdate(componentId, handler.handlerName, handler.userData.toTypedArray())
-                }
+            // Add handlers
+            insertBatch(
+                "insert into bc_ephemeral_handler (component_id, handler_id) VALUES (?, ?)",
+                builders, componentIds
+            ) { builder, componentId ->
+                val handler = builder.handler as? EphemeralHandler<*> ?: return@insertBatch null
+                arrayOf(componentId, ephemeralComponentHandlers.put(handler))
+            }
+            insertBatch(
+                "insert into bc_persistent_handler (component_id, handler_name, user_data) VALUES (?, ?, ?)",
+                builders, componentIds
+            ) { builder, componentId ->
+                val handler = builder.handler as? PersistentHandler ?: return@insertBatch null
+                arrayOf(componentId, handler.handlerName, handler.userData.toTypedArray())
             }
 
-            // Add timeout
-            insertTimeoutData(builder, componentId)
+            // Add timeouts
+            insertBatch(
+                "insert into bc_ephemeral_timeout (component_id, expiration_timestamp, handler_id) VALUES (?, ?, ?)",
+                builders, componentIds
+            ) { builder, componentId ->
+                val timeout = builder.timeout as? EphemeralTimeout ?: return@insertBatch null
+                arrayOf(componentId, timeout.expirationTimestamp.toSqlTimestamp(), timeout.handler?.let(ephemeralTimeoutHandlers::put))
+            }
+            insertBatch(
+                "insert into bc_persistent_timeout (component_id, expiration_timestamp, handler_name, user_data) VALUES (?, ?, ?, ?)",
+                builders, componentIds
+            ) { builder, componentId ->
+                val timeout = builder.timeout as? PersistentTimeout ?: return@insertBatch null
+                arrayOf(componentId, timeout.expirationTimestamp.toSqlTimestamp(), timeout.handlerName, timeout.userData.toTypedArray())
+            }
 
-            componentId
+            componentIds
         }
     }
 
+    /**
+     * Inserts a row for each builder which returns parameters, the statement is not sent if no rows are inserted.
+     */
+    context(Transaction)
+    private suspend inline fun insertBatch(
+        @Language("PostgreSQL") sql: String,
+        builders: List<BaseComponentBuilder<*>>,
+        componentIds: List<Int>,
+        parametersFunction: (builder: BaseComponentBuilder<*>, componentId: Int) -> Array<out Any?>?
+    ) {
+        preparedStatement(sql) {
+            var hasBatch = false
+            builders.forEachIndexed { i, builder ->
+                val parameters = parametersFunction(builder, componentIds[i]) ?: return@forEachIndexed
+                setParameters(parameters)
+                addBatch()
+                hasBatch = true
+            }
+
+            if (hasBatch) executeBatchSuspend()
+        }
+    }
+
+    private suspend fun SuspendingPreparedStatement.executeBatchSuspend(): IntArray =
+        withContext(Dispatchers.IO) { executeBatch() }
+
     private fun getFilterNames(list: List<ComponentInteractionFilter<*>>): Array<out String> {
         return Array(list.size) { list[it].javaClass.name }
     }
 
-    suspend fun getComponent(id: Int): ComponentData? = database.transactional(readOnly = true) {
+    suspend fun getComponent(id: Int): ComponentData? {
+        if (ephemeralComponentStore.isStored(id))
+            return ephemeralComponentStore[id]
+
+        componentCache[id]?.let { return it }
+
+        return fetchComponents(listOf(id)).firstOrNull()?.also(componentCache::put)
+    }
+
+    /**
+     * Retrieves the components in a single query, components which do not exist are skipped.
+     */
+    suspend fun getComponents(ids: List<Int>): List<ComponentData> {
+        val (inMemoryIds, databaseIds) = ids.partition(ephemeralComponentStore::isStored)
+        val inMemoryComponents = inMemoryIds.mapNotNull { ephemeralComponentStore[it] }
+        if (databaseIds.isEmpty())
+            return inMemoryComponents
+
+        val cachedComponents = databaseIds.mapNotNull { componentCache[it] }
+        val missingIds = databaseIds - cachedComponents.mapTo(hashSetOf()) { it.internalId }
+        if (missingIds.isEmpty())
+            return inMemoryComponents + cachedComponents
+
+        val fetchedComponents = fetchComponents(missingIds).onEach(componentCache::put)
+        return inMemoryComponents + cachedComponents + fetchedComponents
+    }
+
+    private suspend fun fetchComponents(ids: List<Int>): List<ComponentData> = database.transactional(readOnly = true) {
+        // Everything needed to construct any kind of component is retrieved in a single round trip,
+        // left joins of the other lifetime type will always be null
         preparedStatement(
             """
-            select lifetime_type, component_type, one_use, users, roles, permissions, group_id, rate_limit_group, filters
-            from bc_component component
-                     left join bc_component_constraints constraints using (component_id)
-                     left join bc_component_component_group componentGroup on componentGroup.component_id = component.component_id
-            where component.component_id = ?""".trimIndent()
+                select component.component_id,
+                       component.lifetime_type,
+                       component.component_type,
+                       component.one_use,
+                       component.rate_limit_group,
+                       component.filters,
+                       constraints.users,
+                       constraints.roles,
+                       constraints.permissions,
+                       componentGroup.group_id,
+                       ph.handler_name         as persistent_handler_name,
+                       ph.user_data            as persistent_handler_user_data,
+                       eh.handler_id           as ephemeral_handler_id,
+                       pt.expiration_timestamp as persistent_timeout_expiration_timestamp,
+                       pt.handler_name         as persistent_timeout_handler_name,
+                       pt.user_data            as persistent_timeout_user_data,
+                       et.expiration_timestamp as ephemeral_timeout_expiration_timestamp,
+                       et.handler_id           as ephemeral_timeout_handler_id,
+                       case
+                           when component.component_type = ? then array(select groupComponent.component_id
+                                                                        from bc_component_component_group groupComponent
+                                                                        where groupComponent.group_id = component.component_id)
+                           end                 as group_component_ids
+                from bc_component component
+                         left join bc_component_constraints constraints on constraints.component_id = component.component_id
+                         left join bc_component_component_group componentGroup on componentGroup.component_id = component.component_id
+                         left join bc_persistent_handler ph on ph.component_id = component.component_id
+                         left join bc_ephemeral_handler eh on eh.component_id = component.component_id
+                         left join bc_persistent_timeout pt on pt.component_id = component.component_id
+                         left join bc_ephemeral_timeout et on et.component_id = component.component_id
+                where component.component_id = any (?)
+            """.trimIndent()
         ) {
-            val dbResult = executeQuery(id).readOrNull() ?: return@preparedStatement null
-
-            val lifetimeType = LifetimeType.fromId(dbResult["lifetime_type"])
-            val componentType = ComponentType.fromId(dbResult["component_type"])
-            val oneUse: Boolean = dbResult["one_use"]
+            executeQuery(ComponentType.GROUP.key, ids.toTypedArray()).map(::readComponent)
+        }
+    }
 
-            if (componentType == ComponentType.GROUP) {
-                return@preparedStatement getGroup(id, oneUse)
-            }
+    private fun readComponent(dbResult: DBResult): ComponentData {
+        val id: Int = dbResult["component_id"]
+        val lifetimeType = LifetimeType.fromId(dbResult["lifetime_type"])
+        val componentType = ComponentType.fromId(dbResult["component_type"])
+        val oneUse: Boolean = dbResult["one_use"]
 
-            val filters = componentFilters.getFilters(dbResult["filters"])
-            val rateLimitGroup: String? = dbResult.getOrNull("rate_limit_group")
+        if (componentType == ComponentType.GROUP) {
+            return readGroup(dbResult, id, oneUse)
+        }
 
-            val constraints = InteractionConstraints.of(
-                dbResult["users"],
-                dbResult["roles"],
-                dbResult["permissions"]
+        val filters = componentFilters.getFilters(dbResult["filters"])
+        val rateLimitGroup: String? = dbResult.getOrNull("rate_limit_group")
+
+        val constraints = InteractionConstraints.of(
+            dbResult["users"],
+            dbResult["roles"],
+            dbResult["permissions"]
+        )
+
+        val groupId: Int? = dbResult.getOrNull("group_id")
+
+        return when (lifetimeType) {
+            LifetimeType.PERSISTENT -> PersistentComponentData(
+                id,
+                componentType,
+                lifetimeType,
+                filters,
+                oneUse,
+                rateLimitGroup,
+                readPersistentHandler(dbResult),
+                readPersistentTimeout(dbResult),
+                constraints,
+                groupId
+            )
+            LifetimeType.EPHEMERAL -> EphemeralComponentData(
+                id,
+                componentType,
+                lifetimeType,
+                filters,
+                oneUse,
+                rateLimitGroup,
+                readEphemeralHandler(dbResult),
+                readEphemeralTimeout(dbResult),
+                constraints,
+                groupId
             )
-
-            when (lifetimeType) {
-                LifetimeType.PERSISTENT -> getPersistentComponent(
-                    id,
-                    componentType,
-                    lifetimeType,
-                    filters,
-                    oneUse,
-                    rateLimitGroup,
-                    constraints,
-                    dbResult["group_id"]
-                )
-                LifetimeType.EPHEMERAL -> getEphemeralComponent(
-                    id,
-                    componentType,
-                    lifetimeType,
-                    filters,
-                    oneUse,
-                    rateLimitGroup,
-                    constraints,
-                    dbResult["group_id"]
-                )
-            }
         }
     }
 
-    suspend fun insertGroup(builder: ComponentGroupBuilder<*>): Int = database.transactional {
-        val groupId: Int = insertBaseComponent(ComponentType.GROUP, builder.lifetimeType, false, null, emptyArray())
-
-        // Add timeout
-        insertTimeoutData(builder, groupId)
+    suspend fun insertGroup(builder: ComponentGroupBuilder<*>): Int {
+        val inMemoryComponentCount = builder.componentIds.count(ephemeralComponentStore::isStored)
+        if (inMemoryComponentCount == 0)
+            return insertDatabaseGroup(builder)
 
-        // Associate group id to its components, and group id to itself
-        suspend fun insertComponentGroupAssociation(componentId: Int) {
-            preparedStatement("insert into bc_component_component_group (group_id, component_id) VALUES (?, ?)") {
-                executeUpdate(groupId, componentId)
-            }
-        }
-        builder.componentIds.forEach { componentId -> insertComponentGroupAssociation(componentId) }
-        insertComponentGroupAssociation(groupId)
+        if (inMemoryComponentCount != builder.componentIds.size)
+            throwUser("Cannot put both in-memory ephemeral components and persistent components inside the same group")
+        return ephemeralComponentStore.insertGroup(builder)
+    }
 
+    private suspend fun insertDatabaseGroup(builder: ComponentGroupBuilder<*>): Int = database.transactional {
         // Check if components inside the group have timeouts
         val hasTimeouts: Boolean = preparedStatement(
             """
@@ -175,6 +326,23 @@ internal class ComponentRepository(
             throwUser("Cannot put components inside groups if they have a timeout set")
         }
 
+        val groupId: Int = insertBaseComponent(ComponentType.GROUP, builder.lifetimeType, false, null, emptyArray())
+
+        // Add timeout
+        insertTimeoutData(builder, groupId)
+
+        // Associate group id to its components, and group id to itself
+        preparedStatement("insert into bc_component_component_group (group_id, component_id) VALUES (?, ?)") {
+            (builder.componentIds + groupId).forEach { componentId ->
+                setParameters(arrayOf(groupId, componentId))
+                addBatch()
+            }
+            executeBatchSuspend()
+        }
+
+        // Cached components are not aware of their new group
+        componentCache.invalidate(builder.componentIds)
+
         return@transactional groupId
     }
 
@@ -217,16 +385,29 @@ internal class ComponentRepository(
         }
     }
 
-    suspend fun deleteComponentsById(ids: List<Int>): List<DeletedComponent> = database.transactional {
+    suspend fun deleteComponentsById(ids: List<Int>): List<DeletedComponent> {
+        if (ids.none(ephemeralComponentStore::isStored))
+            return deleteDatabaseComponentsById(ids)
+
+        val (inMemoryIds, databaseIds) = ids.partition(ephemeralComponentStore::isStored)
+        // In-memory components hold their handlers directly
+        val deletedInMemoryComponents = ephemeralComponentStore.deleteComponentsById(inMemoryIds)
+            .map { DeletedComponent(it, null, null) }
+        if (databaseIds.isEmpty())
+            return deletedInMemoryComponents
+        return deletedInMemoryComponents + deleteDatabaseComponentsById(databaseIds)
+    }
+
+    private suspend fun deleteDatabaseComponentsById(ids: List<Int>): List<DeletedComponent> = database.transactional {
         // If the component is a group, then delete the component, and it's contained components
         // If the component is not a group, then delete the component as well as it's group
 
-        val deletedComponents: List<DeletedComponent> = preparedStatement(
+        // Lock the rows to delete, concurrent deletions of the same components wait for this transaction,
+        // and then no longer see the rows, so only a single deletion reports them as deleted
+        val deletedComponentIds: List<Int> = preparedStatement(
             """
-                select c.component_id, eh.handler_id as component_handler_id, et.handler_id as timeout_handler_id
+                select c.component_id
                 from bc_component c
-                         left join bc_ephemeral_handler eh using (component_id)
-                         left join bc_ephemeral_timeout et using (component_id)
                 where c.component_id = any (?) -- Delete this component
                    or c.component_id = any
                       (select component_id -- (This component is a group) Delete all components from the same group
@@ -237,12 +418,27 @@ internal class ComponentRepository(
                        from bc_component_component_group c
                                 join bc_component_component_group g on c.group_id = g.group_id
                        where c.component_id = any (?))
+                for update
             """.trimIndent()
         ) {
             val idArray = ids.toTypedArray()
-            executeQuery(idArray, idArray, idArray).map { DeletedComponent(it["component_id"], it.getOrNull("component_handler_id"), it.getOrNull("timeout_handler_id")) }
+            executeQuery(idArray, idArray, idArray).map { it["component_id"] }
         }
-        val deletedComponentIds = deletedComponents.map { it.componentId }
+        if (deletedComponentIds.isEmpty())
+            return@transactional emptyList()
+
+        val deletedComponents: List<DeletedComponent> = preparedStatement(
+            """
+                select c.component_id, eh.handler_id as component_handler_id, et.handler_id as timeout_handler_id
+                from bc_component c
+                         left join bc_ephemeral_handler eh using (component_id)
+                         left join bc_ephemeral_timeout et using (component_id)
+                where c.component_id = any (?)
+            """.trimIndent()
+        ) {
+            executeQuery(deletedComponentIds.toTypedArray()).map { DeletedComponent(it["component_id"], it.getOrNull("component_handler_id"), it.getOrNull("timeout_handler_id")) }
+        }
+        componentCache.invalidateDeleted(deletedComponentIds)
 
         preparedStatement("delete from bc_component where component_id = any (?)") {
             executeUpdate(deletedComponentIds.toTypedArray())
@@ -255,160 +451,74 @@ internal class ComponentRepository(
 
     suspend fun scheduleExistingTimeouts(timeoutManager: ComponentTimeoutManager) = database.transactional(readOnly = true) {
         preparedStatement("select component_id, expiration_timestamp from bc_persistent_timeout") {
-            executeQuery().forEach { dbResult ->
-                timeoutManager.scheduleTimeout(dbResult["component_id"], dbResult.get<Timestamp>("expiration_timestamp").toInstant().toKotlinInstant())
-            }
+            scheduleExistingTimeouts(timeoutManager, executeQuery())
         }
     }
 
-    context(Transaction)
-    private suspend fun getPersistentComponent(
-        id: Int,
-        componentType: ComponentType,
-        lifetimeType: LifetimeType,
-        filters: List<ComponentInteractionFilter<*>>,
-        oneUse: Boolean,
-        rateLimitGroup: String?,
-        constraints: InteractionConstraints,
-        groupId: Int?
-    ): PersistentComponentData = preparedStatement(
-        """
-           select ph.handler_name         as handler_handler_name,
-                  ph.user_data            as handler_user_data,
-                  pt.expiration_timestamp as timeout_expiration_timestamp,
-                  pt.handler_name         as timeout_handler_name,
-                  pt.user_data            as timeout_user_data
-           from bc_component component
-                    left join bc_persistent_handler ph on component.component_id = ph.component_id
-                    left join bc_persistent_timeout pt on component.component_id = pt.component_id
-           where component.component_id = ?;
-        """.trimIndent()
-    ) {
-        // There is no rows if neither a handler nor a timeout has been set
-        val dbResult = executeQuery(id).readOrNull()
-            ?: return PersistentComponentData(id, componentType, lifetimeType, filters, oneUse, rateLimitGroup, handler = null, timeout = null, constraints, groupId)
-
-        val handler = dbResult.getOrNull<String>("handler_handler_name")?.let { handlerName ->
-            PersistentHandler.fromData(
-                handlerName,
-                dbResult["handler_user_data"]
-            )
-        }
-
-        val timeout = dbResult.getOrNull<Timestamp>("timeout_expiration_timestamp")?.let { timestamp ->
-            PersistentTimeout.fromData(
-                timestamp,
-                dbResult["timeout_handler_name"],
-                dbResult["timeout_user_data"]
-            )
+    /**
+     * Schedules the persistent timeouts expiring after [after] (exclusive) and up to [until] (inclusive),
+     * already expired timeouts are included if [after] is `null`.
+     *
+     * @return The number of scheduled timeouts
+     */
+    suspend fun scheduleExistingTimeouts(timeoutManager: ComponentTimeoutManager, after: Instant?, until: Instant): Int = database.transactional(readOnly = true) {
+        if (after == null) {
+            preparedStatement("select component_id, expiration_timestamp from bc_persistent_timeout where expiration_timestamp <= ?") {
+                scheduleExistingTimeouts(timeoutManager, executeQuery(until.toSqlTimestamp()))
+            }
+        } else {
+            preparedStatement("select component_id, expiration_timestamp from bc_persistent_timeout where expiration_timestamp > ? and expiration_timestamp <= ?") {
+                scheduleExistingTimeouts(timeoutManager, executeQuery(after.toSqlTimestamp(), until.toSqlTimestamp()))
+            }
         }
-
-        PersistentComponentData(id, componentType, lifetimeType, filters, oneUse, rateLimitGroup, handler, timeout, constraints, groupId)
     }
 
-    context(Transaction)
-    private suspend fun getEphemeralComponent(
-        id: Int,
-        componentType: ComponentType,
-        lifetimeType: LifetimeType,
-        filters: List<ComponentInteractionFilter<*>>,
-        oneUse: Boolean,
-        rateLimitGroup: String?,
-        constraints: InteractionConstraints,
-        groupId: Int?
-    ): EphemeralComponentData = preparedStatement(
-        """
-            select eh.handler_id           as handler_handler_id,
-                   et.expiration_timestamp as timeout_expiration_timestamp,
-                   et.handler_id           as timeout_handler_id
-            from bc_component component
-                     left join bc_ephemeral_handler eh on component.component_id = eh.component_id
-                     left join bc_ephemeral_timeout et on component.component_id = et.component_id
-            where component.component_id = ?;
-        """.trimIndent()
-    ) {
-        // There is no rows if neither a handler nor a timeout has been set
-        val dbResult = executeQuery(id).readOrNull()
-            ?: return EphemeralComponentData(id, componentType, lifetimeType, filters, oneUse, rateLimitGroup, handler = null, timeout = null, constraints, groupId)
-
-        val handler = dbResult.getOrNull<Int>("handler_handler_id")?.let { handlerId ->
-            ephemeralComponentHandlers[handlerId]
-                ?: throwInternal("Unable to find ephemeral handler with id $handlerId")
+    private fun scheduleExistingTimeouts(timeoutManager: ComponentTimeoutManager, dbResult: DBResult): Int {
+        var count = 0
+        dbResult.forEach {
+            timeoutManager.scheduleTimeout(it["component_id"], it.get<Timestamp>("expiration_timestamp").toInstant().toKotlinInstant())
+            count++
         }
-
-        val timeout = dbResult.getOrNull<Timestamp>("timeout_expiration_timestamp")?.let { timestamp ->
-            EphemeralTimeout(
-                timestamp.toInstant().toKotlinInstant(),
-                dbResult.getOrNull<Int>("timeout_handler_id")?.let { handlerId ->
-                    ephemeralTimeoutHandlers[handlerId]
-                        ?: throwInternal("Unable to find ephemeral handler with id $handlerId")
-                }
-            )
-        }
-
-        EphemeralComponentData(id, componentType, lifetimeType, filters, oneUse, rateLimitGroup, handler, timeout, constraints, groupId)
+        return count
     }
 
-    context(Transaction)
-    private suspend fun getGroup(id: Int, oneUse: Boolean): ComponentGroupData {
-        val timeout = getGroupTimeout(id)
-
-        val componentIds: List<Int> = preparedStatement(
-            """
-                select component_id
-                from bc_component_component_group
-                where group_id = ?
-            """.trimIndent()
-        ) {
-            executeQuery(id).map { it["component_id"] }
-        }
-
-        return ComponentGroupData(id, oneUse, timeout, componentIds)
+    private fun readPersistentHandler(dbResult: DBResult): PersistentHandler? {
+        val handlerName: String = dbResult.getOrNull("persistent_handler_name") ?: return null
+        return PersistentHandler.fromData(handlerName, dbResult["persistent_handler_user_data"])
     }
 
-    context(Transaction)
-    private suspend fun getGroupTimeout(id: Int): ComponentTimeout? {
-        preparedStatement(
-            """
-               select pt.expiration_timestamp as timeout_expiration_timestamp,
-                      pt.handler_name         as timeout_handler_name,
-                      pt.user_data            as timeout_user_data
-               from bc_persistent_timeout pt
-               where component_id = ?;
-            """.trimIndent()
-        ) {
-            val dbResult = executeQuery(id).readOrNull() ?: return@preparedStatement null
-
-            dbResult.getOrNull<Timestamp>("timeout_expiration_timestamp")?.let { timestamp ->
-                return PersistentTimeout.fromData(
-                    timestamp,
-                    dbResult["timeout_handler_name"],
-                    dbResult["timeout_user_data"]
-                )
-            }
-        }
+    private fun readEphemeralHandler(dbResult: DBResult): EphemeralHandler<*>? {
+        val handlerId: Int = dbResult.getOrNull("ephemeral_handler_id") ?: return null
+        return ephemeralComponentHandlers[handlerId]
+            ?: throwInternal("Unable to find ephemeral handler with id $handlerId")
+    }
 
-        //In case there's no persistent timeout handler
-        preparedStatement(
-            """
-               select pt.expiration_timestamp as timeout_expiration_timestamp,
-                      pt.handler_id           as timeout_handler_id
-               from bc_ephemeral_timeout pt
-               where component_id = ?;
-            """.trimIndent()
-        ) {
-            val dbResult = executeQuery(id).readOrNull() ?: return@preparedStatement null
+    private fun readPersistentTimeout(dbResult: DBResult): PersistentTimeout? {
+        val timestamp: Timestamp = dbResult.getOrNull("persistent_timeout_expiration_timestamp") ?: return null
+        return PersistentTimeout.fromData(
+            timestamp,
+            dbResult["persistent_timeout_handler_name"],
+            dbResult["persistent_timeout_user_data"]
+        )
+    }
 
-            val timestamp: Timestamp = dbResult.getOrNull("timeout_expiration_timestamp") ?: return null
-            val handlerId: Int = dbResult.getOrNull("timeout_handler_id") ?: return null
-            return EphemeralTimeout(
-                timestamp.toInstant().toKotlinInstant(),
+    private fun readEphemeralTimeout(dbResult: DBResult): EphemeralTimeout? {
+        val timestamp: Timestamp = dbResult.getOrNull("ephemeral_timeout_expiration_timestamp") ?: return null
+        return EphemeralTimeout(
+            timestamp.toInstant().toKotlinInstant(),
+            dbResult.getOrNull<Int>("ephemeral_timeout_handler_id")?.let { handlerId ->
                 ephemeralTimeoutHandlers[handlerId]
                     ?: throwInternal("Unable to find ephemeral handler with id $handlerId")
-            )
-        }
+            }
+        )
+    }
 
-        return null
+    private fun readGroup(dbResult: DBResult, id: Int, oneUse: Boolean): ComponentGroupData {
+        // Groups can have either timeout type, regardless of their lifetime type
+        val timeout: ComponentTimeout? = readPersistentTimeout(dbResult) ?: readEphemeralTimeout(dbResult)
+        val componentIds: List<Int> = dbResult["group_component_ids"]
+
+        return ComponentGroupData(id, oneUse, timeout, componentIds)
     }
 
     @Suppress("SqlWithoutWhere")
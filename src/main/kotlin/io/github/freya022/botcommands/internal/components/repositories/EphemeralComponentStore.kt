@@ -0,0 +1,186 @@
+package io.github.freya022.botcommands.internal.components.repositories
+
+import gnu.trove.map.hash.TIntObjectHashMap
+import io.github.freya022.botcommands.api.components.annotations.RequiresComponents
+import io.github.freya022.botcommands.api.components.builder.BaseComponentBuilder
+import io.github.freya022.botcommands.api.components.builder.group.ComponentGroupBuilder
+import io.github.freya022.botcommands.api.components.data.InteractionConstraints
+import io.github.freya022.botcommands.api.core.config.BComponentsConfig
+import io.github.freya022.botcommands.api.core.service.annotations.BService
+import io.github.freya022.botcommands.internal.components.LifetimeType
+import io.github.freya022.botcommands.internal.components.data.ComponentData
+import io.github.freya022.botcommands.internal.components.data.ComponentGroupData
+import io.github.freya022.botcommands.internal.components.data.EphemeralComponentData
+import io.github.freya022.botcommands.internal.components.data.EphemeralTimeout
+import io.github.freya022.botcommands.internal.components.handler.EphemeralHandler
+import io.github.freya022.botcommands.internal.utils.throwInternal
+import io.github.freya022.botcommands.internal.utils.throwUser
+import io.github.oshai.kotlinlogging.KotlinLogging
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.ReentrantReadWriteLock
+import kotlin.concurrent.read
+import kotlin.concurrent.write
+
+private val logger = KotlinLogging.logger { }
+
+// Must be a power of two
+private const val STRIPE_COUNT = 16
+
+/**
+ * Stores ephemeral components and their groups in memory, without ever using the database.
+ *
+ * Components stored here have negative IDs, so they never conflict with database IDs,
+ * their handlers and timeouts are kept directly in the component data.
+ *
+ * Once all negative IDs were used, IDs wrap back to `-1`, skipping the IDs of components which still exist.
+ */
+@BService
+@RequiresComponents
+internal class EphemeralComponentStore internal constructor(componentsConfig: BComponentsConfig) {
+    val isEnabled: Boolean = componentsConfig.useInMemoryEphemeralComponents
+
+    // Sequential IDs are spread evenly across stripes
+    private class Stripe {
+        val lock = ReentrantReadWriteLock()
+        val map = TIntObjectHashMap<ComponentData>()
+    }
+
+    private val stripes = Array(STRIPE_COUNT) { Stripe() }
+    private val size = AtomicInteger(0)
+    private val lastId = AtomicInteger(0)
+
+    fun isStored(id: Int): Boolean = id < 0
+
+    fun canStore(builder: BaseComponentBuilder<*>): Boolean =
+        isEnabled && builder.lifetimeType == LifetimeType.EPHEMERAL
+
+    operator fun get(id: Int): ComponentData? = stripe(id).let { stripe ->
+        stripe.lock.read { stripe.map[id] }
+    }
+
+    /**
+     * @return The IDs of the created components, in the same order as the [builders]
+     */
+    fun createComponents(builders: List<BaseComponentBuilder<*>>): List<Int> =
+        builders.map { builder ->
+            putWithNextId { id -> EphemeralComponentData(
+                id,
+                builder.componentType,
+                builder.lifetimeType,
+                builder.filters.toList(),
+                builder.oneUse,
+                builder.rateLimitGroup,
+                builder.handler as EphemeralHandler<*>?,
+                builder.timeout as EphemeralTimeout?,
+                InteractionConstraints.empty().setConstraints(builder.constraints),
+                groupId = null
+            ) }
+        }
+
+    fun insertGroup(builder: ComponentGroupBuilder<*>): Int {
+        if (builder.lifetimeType != LifetimeType.EPHEMERAL)
+            throwUser("Cannot put in-memory ephemeral components inside a persistent group")
+
+        val groupComponents = builder.componentIds.map { componentId ->
+            val component = this[componentId]
+                ?: throwUser("Cannot put component $componentId inside a group as it does not exist")
+            if (component.timeout != null)
+                throwUser("Cannot put components inside groups if they have a timeout set")
+            component as? EphemeralComponentData
+                ?: throwInternal("Tried to put a non-ephemeral component inside an in-memory group: $component")
+        }
+
+        // Same as the database, the group is associated to itself
+        val groupId = putWithNextId { id -> ComponentGroupData(id, false, builder.timeout, builder.componentIds + id) }
+
+        // Components are immutable, replace them with ones aware of their group
+        groupComponents.forEach { component ->
+            if (!replace(component, component.withGroupId(groupId))) {
+                remove(groupId)
+                throwUser("Cannot put component ${component.internalId} inside a group as it was deleted or grouped concurrently")
+            }
+        }
+
+        return groupId
+    }
+
+    /**
+     * Deletes the components, if a component is a group, then all its components are deleted,
+     * if a component is in a group, then the entire group is deleted.
+     *
+     * @return The IDs of the deleted components
+     */
+    fun deleteComponentsById(ids: List<Int>): List<Int> {
+        val deletedIds = linkedSetOf<Int>()
+        ids.forEach { id ->
+            val component = this[id] ?: return@forEach
+            deletedIds += id
+
+            val groupId = if (component is ComponentGroupData) id else component.groupId
+            if (groupId != null) {
+                val group = this[groupId] as? ComponentGroupData ?: return@forEach
+                deletedIds += group.componentIds
+            }
+        }
+        // Only report the components this call has removed, as they may be deleted concurrently
+        val removedIds = deletedIds.filter { remove(it) != null }
+
+        logger.trace { "Deleted in-memory components: ${removedIds.joinToString()}" }
+
+        return removedIds
+    }
+
+    private inline fun putWithNextId(dataSupplier: (id: Int) -> ComponentData): Int {
+        while (true) {
+            // Int.MAX_VALUE is the number of negative IDs
+            check(size.get() < Int.MAX_VALUE) { "All in-memory component IDs are in use" }
+
+            // Decrementing keeps IDs negative, wrap back to -1 instead of overflowing into database IDs
+            val id = lastId.updateAndGet { if (it == Int.MIN_VALUE) -1 else it - 1 }
+            // Skip IDs of components which still exist
+            if (putIfAbsent(id, dataSupplier))
+                return id
+        }
+    }
+
+    private inline fun putIfAbsent(id: Int, dataSupplier: (id: Int) -> ComponentData): Boolean {
+        val stripe = stripe(id)
+        stripe.lock.write {
+            if (stripe.map.containsKey(id)) return false
+            stripe.map.put(id, dataSupplier(id))
+        }
+        size.incrementAndGet()
+        return true
+    }
+
+    private fun replace(oldData: ComponentData, newData: ComponentData): Boolean {
+        val stripe = stripe(oldData.internalId)
+        stripe.lock.write {
+            if (stripe.map[oldData.internalId] !== oldData) return false
+            stripe.map.put(oldData.internalId, newData)
+            return true
+        }
+    }
+
+    private fun remove(id: Int): ComponentData? {
+        val stripe = stripe(id)
+        val removed = stripe.lock.write { stripe.map.remove(id) } ?: return null
+        size.decrementAndGet()
+        return removed
+    }
+
+    private fun stripe(id: Int): Stripe = stripes[id and (STRIPE_COUNT - 1)]
+
+    private fun EphemeralComponentData.withGroupId(groupId: Int) = EphemeralComponentData(
+        internalId,
+        componentType,
+        lifetimeType,
+        filters,
+        oneUse,
+        rateLimitGroup,
+        handler,
+        timeout,
+        constraints,
+        groupId
+    )
+}
@@ -33,6 +33,10 @@ internal class BContextImpl internal constructor(override val config: BConfig, o
     override val defaultMessagesSupplier: DefaultMessagesSupplier by serviceContainer.lazyOrElse { DefaultDefaultMessagesSupplier(this) }
 
     override val settingsProvider: SettingsProvider? by serviceContainer.lazyOrNull()
+    // Used for the lookups of the framework
+    internal val cachedSettingsProvider: CachedSettingsProvider? by lazy {
+        settingsProvider?.let { CachedSettingsProvider(it, config.settingsCacheDuration) }
+    }
     override val globalExceptionHandler: GlobalExceptionHandler? by serviceContainer.lazyOrNull()
 
     override val textCommandsContext: TextCommandsContextImpl by serviceContainer.lazy()
@@ -110,6 +114,14 @@ internal class BContextImpl internal constructor(override val config: BConfig, o
         }
     }
 
+    override fun invalidateGuildSettings(guildId: Long) {
+        cachedSettingsProvider?.invalidate(guildId)
+    }
+
+    override fun invalidateAllGuildSettings() {
+        cachedSettingsProvider?.invalidateAll()
+    }
+
     override fun invalidateAutocompleteCache(autocompleteHandlerName: String) {
         getService<AutocompleteInfoContainer>()[autocompleteHandlerName]?.invalidate()
     }
@@ -0,0 +1,73 @@
+package io.github.freya022.botcommands.internal.core
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import io.github.freya022.botcommands.api.commands.CommandList
+import io.github.freya022.botcommands.api.core.BContext
+import io.github.freya022.botcommands.api.core.SettingsProvider
+import net.dv8tion.jda.api.entities.Guild
+import net.dv8tion.jda.api.interactions.DiscordLocale
+import kotlin.time.Duration
+import kotlin.time.toJavaDuration
+
+/**
+ * The settings provider used by the framework, which is cached when this is the framework's context.
+ */
+internal val BContext.internalSettingsProvider: SettingsProvider?
+    get() = when (this) {
+        is BContextImpl -> cachedSettingsProvider
+        else -> settingsProvider
+    }
+
+// Guild IDs are never 0, used for the locale of a global context
+private const val NO_GUILD_KEY = 0L
+
+/**
+ * Caches the settings returned by the user's [SettingsProvider], per guild, for a [fixed duration][expiry].
+ *
+ * Caching is disabled if the duration is zero.
+ */
+internal class CachedSettingsProvider(
+    private val delegate: SettingsProvider,
+    expiry: Duration
+) : SettingsProvider {
+    // null and empty prefixes are equivalent, as Caffeine does not store null values
+    private val prefixes: Cache<Long, List<String>>? = createCache(expiry)
+    private val guildCommands: Cache<Long, CommandList>? = createCache(expiry)
+    private val locales: Cache<Long, DiscordLocale>? = createCache(expiry)
+
+    override fun getPrefixes(guild: Guild): List<String>? {
+        if (prefixes == null) return delegate.getPrefixes(guild)
+        return prefixes.get(guild.idLong) { delegate.getPrefixes(guild) ?: emptyList() }
+    }
+
+    override fun getGuildCommands(guild: Guild): CommandList {
+        if (guildCommands == null) return delegate.getGuildCommands(guild)
+        return guildCommands.get(guild.idLong) { delegate.getGuildCommands(guild) }
+    }
+
+    override fun getLocale(guild: Guild?): DiscordLocale {
+        if (locales == null) return delegate.getLocale(guild)
+        return locales.get(guild?.idLong ?: NO_GUILD_KEY) { delegate.getLocale(guild) }
+    }
+
+    fun invalidate(guildId: Long) {
+        prefixes?.invalidate(guildId)
+        guildCommands?.invalidate(guildId)
+        locales?.invalidate(guildId)
+    }
+
+    fun invalidateAll() {
+        prefixes?.invalidateAll()
+        guildCommands?.invalidateAll()
+        locales?.invalidateAll()
+    }
+
+    private fun <V : Any> createCache(expiry: Duration): Cache<Long, V>? {
+        if (expiry == Duration.ZERO) return null
+
+        return Caffeine.newBuilder()
+            .apply { if (expiry.isFinite()) expireAfterWrite(expiry.toJavaDuration()) }
+            .build()
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.freya022.botcommands.internal.core
 
+import io.github.freya022.botcommands.internal.core.reflection.FunctionInvoker
 import kotlin.time.Duration
 
 internal class EventHandlerFunction(
@@ -13,6 +14,8 @@ internal class EventHandlerFunction(
         parametersBlock()
     }
 
+    val invoker = FunctionInvoker(classPathFunction.function)
+
     override fun equals(other: Any?): Boolean {
         if (this === other) return true
         if (javaClass != other?.javaClass) return false
@@ -21,9 +21,11 @@ internal class BotCommandsCoreConfiguration(
     override val classes: Set<Class<*>> = emptySet(),
     override val disableExceptionsInDMs: Boolean = false,
     override val disableAutocompleteCache: Boolean = false,
+    settingsCacheDurationMillis: Long? = null,
     override val ignoredIntents: Set<GatewayIntent> = emptySet(),
     override val ignoredEventIntents: Set<Class<out Event>> = emptySet(),
 ) : BConfig {
+    override val settingsCacheDuration: Duration = settingsCacheDurationMillis?.milliseconds ?: Duration.ZERO
     override val classGraphProcessors: List<ClassGraphProcessor> get() = unusable()
     override val debugConfig: BDebugConfig get() = unusable()
     override val serviceConfig: BServiceConfig get() = unusable()
@@ -41,6 +43,7 @@ internal fun BConfigBuilder.applyConfig(configuration: BotCommandsCoreConfigurat
     classes += configuration.classes
     disableExceptionsInDMs = configuration.disableExceptionsInDMs
     disableAutocompleteCache = configuration.disableAutocompleteCache
+    settingsCacheDuration = configuration.settingsCacheDuration
     ignoredIntents += configuration.ignoredIntents
     ignoredEventIntents += configuration.ignoredEventIntents
 }
@@ -122,13 +125,22 @@ internal fun BApplicationConfigBuilder.applyConfig(configuration: BotCommandsApp
 
 @ConfigurationProperties(prefix = "botcommands.components", ignoreUnknownFields = false)
 internal class BotCommandsComponentsConfiguration(
-    val enable: Boolean = false
+    val enable: Boolean = false,
+    override val componentCacheSize: Long = 0,
+    override val useInMemoryEphemeralComponents: Boolean = false,
+    persistentTimeoutLoadWindowMillis: Long? = null,
+    override val deferOneUseComponentDeletion: Boolean = false
 ) : BComponentsConfig {
     override val useComponents: Boolean get() = enable
+    override val persistentTimeoutLoadWindow: Duration = persistentTimeoutLoadWindowMillis?.milliseconds ?: Duration.INFINITE
 }
 
 internal fun BComponentsConfigBuilder.applyConfig(configuration: BotCommandsComponentsConfiguration) = apply {
     useComponents = configuration.useComponents
+    componentCacheSize = configuration.componentCacheSize
+    useInMemoryEphemeralComponents = configuration.useInMemoryEphemeralComponents
+    persistentTimeoutLoadWindow = configuration.persistentTimeoutLoadWindow
+    deferOneUseComponentDeletion = configuration.deferOneUseComponentDeletion
 }
 
 private fun unusable(): Nothing = throwUser("Cannot be used")
@@ -0,0 +1,36 @@
+package io.github.freya022.botcommands.internal.core.options
+
+import java.util.BitSet
+
+/**
+ * Resolved values of the options of an executable, stored by slot.
+ *
+ * Slots are assigned in the order the options are declared, including the options of nested aggregates,
+ * which is also the order in which they are read when aggregating the final parameters.
+ *
+ * Options without a value use their Kotlin default value, which is different from a `null` value.
+ */
+internal class OptionValues(size: Int) {
+    private val values: Array<Any?> = arrayOfNulls(size)
+    private val present = BitSet(size)
+    private var currentSlot = -1
+
+    /**
+     * Moves to the slot of the next option to be resolved.
+     */
+    fun nextSlot() {
+        currentSlot++
+    }
+
+    /**
+     * Sets the value of the option currently being resolved.
+     */
+    fun put(value: Any?) {
+        values[currentSlot] = value
+        present.set(currentSlot)
+    }
+
+    fun isPresent(slot: Int): Boolean = present[slot]
+
+    operator fun get(slot: Int): Any? = values[slot]
+}
@@ -10,8 +10,6 @@ import io.github.freya022.botcommands.internal.utils.throwInternal
 import net.dv8tion.jda.api.events.Event
 import kotlin.reflect.KClass
 import kotlin.reflect.KFunction
-import kotlin.reflect.KParameter
-import kotlin.reflect.full.callSuspendBy
 import kotlin.reflect.full.instanceParameter
 import kotlin.reflect.jvm.jvmErasure
 
@@ -36,7 +34,7 @@ class AggregatorFunction private constructor(
         firstParamType: KClass<*>
     ) : this(aggregator, context.serviceContainer.getFunctionServiceOrNull(aggregator), firstParamType)
 
-    internal suspend fun aggregate(firstParam: Any, aggregatorArguments: MutableMap<KParameter, Any?>): Any? {
+    internal suspend fun aggregate(firstParam: Any, aggregatorArguments: FunctionArguments): Any? {
         if (instanceParameter != null) {
             aggregatorArguments[instanceParameter] = aggregatorInstance
                 ?: throwInternal(aggregator, "Aggregator's instance parameter (${instanceParameter.type.jvmErasure.simpleNestedName}) was not retrieved but was necessary")
@@ -46,7 +44,7 @@ class AggregatorFunction private constructor(
             aggregatorArguments[eventParameter] = firstParam
         }
 
-        return aggregator.callSuspendBy(aggregatorArguments)
+        return invoker.callSuspend(aggregatorArguments)
     }
 }
 
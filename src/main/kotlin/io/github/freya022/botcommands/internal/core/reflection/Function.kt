@@ -7,6 +7,8 @@ sealed class Function<R>(boundFunction: KFunction<R>) {
     val kFunction = boundFunction.reflectReference()
     val parametersSize = kFunction.parameters.size
 
+    internal val invoker = FunctionInvoker(kFunction)
+
     override fun equals(other: Any?): Boolean {
         if (this === other) return true
         if (javaClass != other?.javaClass) return false
@@ -0,0 +1,29 @@
+package io.github.freya022.botcommands.internal.core.reflection
+
+import java.util.BitSet
+import kotlin.reflect.KParameter
+
+/**
+ * Arguments of a function, stored by [parameter index][KParameter.index].
+ *
+ * Parameters without an argument use their Kotlin default value when invoked,
+ * which is different from setting a `null` argument.
+ */
+internal class FunctionArguments(size: Int) {
+    val values: Array<Any?> = arrayOfNulls(size)
+    private val present = BitSet(size)
+
+    fun isPresent(index: Int): Boolean = present[index]
+
+    fun isPresent(parameter: KParameter): Boolean = present[parameter.index]
+
+    operator fun get(parameter: KParameter): Any? = values[parameter.index]
+
+    operator fun set(parameter: KParameter, value: Any?) {
+        values[parameter.index] = value
+        present.set(parameter.index)
+    }
+
+    fun toMap(parameters: List<KParameter>): Map<KParameter, Any?> =
+        parameters.filter { isPresent(it) }.associateWith { values[it.index] }
+}
@@ -0,0 +1,188 @@
+package io.github.freya022.botcommands.internal.core.reflection
+
+import io.github.freya022.botcommands.internal.utils.shortSignature
+import io.github.oshai.kotlinlogging.KotlinLogging
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.reflect.Modifier
+import kotlin.coroutines.intrinsics.suspendCoroutineUninterceptedOrReturn
+import kotlin.reflect.KFunction
+import kotlin.reflect.KParameter
+import kotlin.reflect.full.callSuspend
+import kotlin.reflect.full.callSuspendBy
+import kotlin.reflect.jvm.isAccessible
+import kotlin.reflect.jvm.javaConstructor
+import kotlin.reflect.jvm.javaMethod
+import kotlin.reflect.jvm.jvmErasure
+
+private val logger = KotlinLogging.logger { }
+
+private val lookup = MethodHandles.lookup()
+
+private val defaultConstructorMarker = Class.forName("kotlin.jvm.internal.DefaultConstructorMarker")
+
+private val primitiveDefaults: Map<Class<*>, Any> = mapOf(
+    Boolean::class.javaPrimitiveType!! to false,
+    Char::class.javaPrimitiveType!! to 0.toChar(),
+    Byte::class.javaPrimitiveType!! to 0.toByte(),
+    Short::class.javaPrimitiveType!! to 0.toShort(),
+    Int::class.javaPrimitiveType!! to 0,
+    Long::class.javaPrimitiveType!! to 0L,
+    Float::class.javaPrimitiveType!! to 0f,
+    Double::class.javaPrimitiveType!! to 0.0,
+)
+
+/**
+ * Invokes a function using method handles, which are created once,
+ * instead of going through the validation and boxing of kotlin-reflect on each call.
+ *
+ * Continuations and [Kotlin default values][KParameter.isOptional] are passed the same way as the compiler does,
+ * when a default value is used, the synthetic `$default` method is called, with a bitmask of the parameters to compute.
+ *
+ * Functions that cannot be called directly, such as functions with vararg parameters, or using inline value classes,
+ * fall back to kotlin-reflect.
+ *
+ * **Note:** Unlike kotlin-reflect, exceptions thrown by the function are not wrapped.
+ */
+internal class FunctionInvoker<R> internal constructor(private val function: KFunction<R>) {
+    private class Handles(
+        /** `(Object[]) -> Object` handle of the function */
+        val direct: MethodHandle,
+        /** `(Object[]) -> Object` handle of the `$default` function, `null` if absent */
+        val default: MethodHandle?
+    )
+
+    private val parameters = function.parameters
+    private val valueParameterCount = parameters.count { it.kind == KParameter.Kind.VALUE }
+    private val maskCount = (valueParameterCount + Int.SIZE_BITS - 1) / Int.SIZE_BITS
+    private val isSuspend = function.isSuspend
+    private val returnsUnit = function.returnType.let { it.classifier == Unit::class && !it.isMarkedNullable }
+
+    // Primitive parameters cannot receive null, even if their default value gets used
+    private val placeholders: Array<Any?> = Array(parameters.size) { i ->
+        val type = parameters[i].type
+        if (type.isMarkedNullable) null else type.jvmErasure.javaPrimitiveType?.let(primitiveDefaults::get)
+    }
+
+    private val handles: Handles? = try {
+        createHandles()
+    } catch (e: Exception) {
+        logger.debug(e) { "Could not create method handles for ${function.shortSignature}, falling back to kotlin-reflect" }
+        null
+    }
+
+    /**
+     * Calls the function with the given arguments,
+     * optional parameters without an argument will use their default value.
+     */
+    suspend fun callSuspend(arguments: FunctionArguments): R {
+        val handles = handles ?: return function.callSuspendBy(arguments.toMap(parameters))
+
+        val values = arguments.values
+        var masks: IntArray? = null
+        var valueIndex = 0
+        for (i in parameters.indices) {
+            val parameter = parameters[i]
+            if (!arguments.isPresent(i)) {
+                if (!parameter.isOptional)
+                    throw IllegalArgumentException("No argument provided for a required parameter: $parameter of ${function.shortSignature}")
+
+                if (masks == null) masks = IntArray(maskCount)
+                masks[valueIndex / Int.SIZE_BITS] = masks[valueIndex / Int.SIZE_BITS] or (1 shl (valueIndex % Int.SIZE_BITS))
+                values[i] = placeholders[i]
+            }
+
+            if (parameter.kind == KParameter.Kind.VALUE) valueIndex++
+        }
+
+        if (masks != null && handles.default == null)
+            return function.callSuspendBy(arguments.toMap(parameters))
+        return invoke(handles, values, masks)
+    }
+
+    /**
+     * Calls the function with all its arguments, in the same order as its [parameters][KFunction.parameters].
+     */
+    suspend fun callSuspend(vararg args: Any?): R {
+        val handles = handles ?: return function.callSuspend(*args)
+        require(args.size == parameters.size) {
+            "Expected ${parameters.size} arguments but got ${args.size} for ${function.shortSignature}"
+        }
+
+        // Vararg arrays are always Object[]
+        @Suppress("UNCHECKED_CAST")
+        return invoke(handles, args as Array<Any?>, masks = null)
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private suspend fun invoke(handles: Handles, arguments: Array<Any?>, masks: IntArray?): R {
+        val result = when {
+            isSuspend -> suspendCoroutineUninterceptedOrReturn { continuation ->
+                invokeHandle(handles, arguments, masks, continuation)
+            }
+            else -> invokeHandle(handles, arguments, masks, continuation = null)
+        }
+
+        // Void methods return null, and suspending ones may return anything
+        return if (returnsUnit) Unit as R else result as R
+    }
+
+    private fun invokeHandle(handles: Handles, arguments: Array<Any?>, masks: IntArray?, continuation: Any?): Any? {
+        // Layout is [receivers and parameters..., continuation, masks..., marker]
+        val extraArguments = (if (isSuspend) 1 else 0) + (if (masks != null) masks.size + 1 else 0)
+        val finalArguments = if (extraArguments == 0) arguments else arguments.copyOf(arguments.size + extraArguments)
+
+        var index = arguments.size
+        if (isSuspend)
+            finalArguments[index++] = continuation
+        if (masks != null) {
+            for (mask in masks)
+                finalArguments[index++] = mask
+            // The marker is always null
+            return handles.default!!.invoke(finalArguments)
+        }
+
+        return handles.direct.invoke(finalArguments)
+    }
+
+    private fun createHandles(): Handles? {
+        // Also allows kotlin-reflect to call the function, when falling back
+        function.isAccessible = true
+        if (parameters.any { it.isVararg || it.type.jvmErasure.isValue } || function.returnType.jvmErasure.isValue)
+            return null
+
+        val method = function.javaMethod
+        if (method != null) {
+            val defaultMethod = if (parameters.any { it.isOptional }) {
+                // Instance methods get their receiver as the first parameter of the static method
+                val receiverTypes = if (Modifier.isStatic(method.modifiers)) emptyArray() else arrayOf(method.declaringClass)
+                method.declaringClass
+                    .getDeclaredMethod(method.name + "\$default", *receiverTypes, *method.parameterTypes, *maskTypes(), Any::class.java)
+                    .also { it.isAccessible = true }
+            } else {
+                null
+            }
+
+            return Handles(lookup.unreflect(method).spread(), defaultMethod?.let { lookup.unreflect(it).spread() })
+        }
+
+        val constructor = function.javaConstructor ?: return null
+        val defaultConstructor = if (parameters.any { it.isOptional }) {
+            constructor.declaringClass
+                .getDeclaredConstructor(*constructor.parameterTypes, *maskTypes(), defaultConstructorMarker)
+                .also { it.isAccessible = true }
+        } else {
+            null
+        }
+
+        return Handles(
+            lookup.unreflectConstructor(constructor).spread(),
+            defaultConstructor?.let { lookup.unreflectConstructor(it).spread() }
+        )
+    }
+
+    private fun maskTypes(): Array<Class<*>> = Array(maskCount) { Int::class.javaPrimitiveType!! }
+
+    private fun MethodHandle.spread(): MethodHandle =
+        asType(type().generic()).asSpreader(Array<Any?>::class.java, type().parameterCount())
+}
@@ -1,8 +1,10 @@
 package io.github.freya022.botcommands.internal.core.waiter
 
+import io.github.freya022.botcommands.api.core.utils.simpleNestedName
 import io.github.freya022.botcommands.api.core.waiter.CompletedFutureEvent
 import io.github.freya022.botcommands.api.core.waiter.EventWaiterBuilder
 import net.dv8tion.jda.api.events.Event
+import java.util.*
 import java.util.concurrent.CompletableFuture
 import java.util.function.Consumer
 import java.util.function.Predicate
@@ -13,6 +15,7 @@ internal class EventWaiterBuilderImpl<T : Event> internal constructor(
     private val eventType: Class<T>
 ) : EventWaiterBuilder<T> {
     private val preconditions: MutableList<Predicate<T>> = arrayListOf()
+    private val keys: EnumMap<WaiterKeyType, Long> = EnumMap(WaiterKeyType::class.java)
     private var onSuccess: Consumer<T>? = null
     private var onTimeout: Runnable? = null
     private var onCancelled: Runnable? = null
@@ -46,8 +49,24 @@ internal class EventWaiterBuilderImpl<T : Event> internal constructor(
         this.preconditions += precondition
     }
 
+    override fun setUserId(userId: Long): EventWaiterBuilder<T> = setKey(WaiterKeyType.USER, userId)
+
+    override fun setChannelId(channelId: Long): EventWaiterBuilder<T> = setKey(WaiterKeyType.CHANNEL, channelId)
+
+    override fun setGuildId(guildId: Long): EventWaiterBuilder<T> = setKey(WaiterKeyType.GUILD, guildId)
+
+    override fun setMessageId(messageId: Long): EventWaiterBuilder<T> = setKey(WaiterKeyType.MESSAGE, messageId)
+
+    private fun setKey(keyType: WaiterKeyType, id: Long): EventWaiterBuilder<T> = apply {
+        require(keyType.isSupported(eventType)) {
+            "${eventType.simpleNestedName} does not have a ${keyType.name.lowercase()} ID"
+        }
+
+        this.keys[keyType] = id
+    }
+
     override fun submit(): CompletableFuture<T> = eventWaiter.submit(
-        WaitingEvent(eventType, preconditions, onComplete, onSuccess, onTimeout, onCancelled, timeout)
+        WaitingEvent(eventType, keys.toMap(), preconditions.toList(), onComplete, onSuccess, onTimeout, onCancelled, timeout)
     )
 
     override fun complete(): T = submit().get()
@@ -23,11 +23,10 @@ import net.dv8tion.jda.api.requests.GatewayIntent
 import net.dv8tion.jda.internal.JDAImpl
 import java.util.*
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.TimeoutException
-import java.util.concurrent.locks.ReentrantLock
 import java.util.function.Predicate
-import kotlin.concurrent.withLock
 
 private val logger = KotlinLogging.loggerOf<EventWaiter>()
 
@@ -35,8 +34,7 @@ private val logger = KotlinLogging.loggerOf<EventWaiter>()
 internal class EventWaiterImpl(context: BContextImpl) : EventWaiter {
     private val exceptionHandler = ExceptionHandler(context, logger)
 
-    private val waitingMap: MutableMap<Class<out Event>, MutableList<WaitingEvent<out Event>>> = HashMap()
-    private val lock = ReentrantLock()
+    private val waitingMap: MutableMap<Class<out Event>, WaiterIndex> = ConcurrentHashMap()
 
     private lateinit var jda: JDA
     private lateinit var intents: EnumSet<GatewayIntent>
@@ -59,21 +57,19 @@ internal class EventWaiterImpl(context: BContextImpl) : EventWaiter {
             future.orTimeout(waitingEvent.timeout.inWholeMilliseconds, TimeUnit.MILLISECONDS)
         }
 
-        val waitingEvents = waitingMap.computeIfAbsent(waitingEvent.eventType) { arrayListOf() }
+        val waiterIndex = waitingMap.computeIfAbsent(waitingEvent.eventType) { WaiterIndex() }
         future.whenComplete { event: T?, throwable: Throwable? ->
+            // Only one of the event, timeout and cancellation can complete the future
+            waiterIndex.remove(waitingEvent)
             try {
                 waitingEvent.onComplete?.accept(future, event, throwable)
                 if (throwable is TimeoutException) {
                     logger.trace { "Timeout for ${waitingEvent.eventType.simpleNestedName} waiter" }
-                    //Not removed automatically by Iterator#remove before this method is called
-                    lock.withLock { waitingEvents.remove(waitingEvent) }
                     waitingEvent.onTimeout?.run()
                 } else if (event != null) {
                     waitingEvent.onSuccess?.accept(event)
                 } else if (future.isCancelled) {
                     logger.trace { "Cancelled ${waitingEvent.eventType.simpleNestedName} waiter" }
-                    //Not removed automatically by Iterator#remove before this method is called
-                    lock.withLock { waitingEvents.remove(waitingEvent) }
                     waitingEvent.onCancelled?.run()
                 } else {
                     throwInternal("Unexpected branch with stack trace: ${throwable?.stackTraceToString()}")
@@ -83,7 +79,10 @@ internal class EventWaiterImpl(context: BContextImpl) : EventWaiter {
             }
         }
 
-        lock.withLock { waitingEvents.add(waitingEvent) }
+        waiterIndex.add(waitingEvent)
+        // The future may have timed out before being indexed
+        if (future.isDone)
+            waiterIndex.remove(waitingEvent)
 
         return future
     }
@@ -96,37 +95,36 @@ internal class EventWaiterImpl(context: BContextImpl) : EventWaiter {
         this.intents = event.jda.gatewayIntents
     }
 
-    @Suppress("UNCHECKED_CAST")
     @BEventListener
     internal fun onEvent(event: Event) {
-        val waitingEvents: MutableList<WaitingEvent<out Event>> = waitingMap[event.javaClass] ?: return
-
-        lock.withLock {
-            val iterator = waitingEvents.iterator()
-            eventLoop@ while (iterator.hasNext()) {
-                try {
-                    val waitingEvent = iterator.next()
-                    for (precondition in waitingEvent.preconditions) {
-                        precondition as Predicate<Event>
-                        if (!precondition.test(event)) {
-                            logger.trace { "Failed ${event.javaClass.simpleNestedName} precondition #${waitingEvent.preconditions.indexOf(precondition)} $precondition with $event" }
-                            continue@eventLoop
-                        }
-                    }
-
-                    val completableFuture = waitingEvent.completableFuture as CompletableFuture<Event>
-                    if (completableFuture.complete(event)) {
-                        iterator.remove()
-                    } else {
-                        throwInternal("Completable future was already completed")
-                    }
-                } catch (e: Exception) {
-                    exceptionHandler.handleException(event, e, "EventWaiter handler for $event")
-                }
+        val waiterIndex = waitingMap[event.javaClass] ?: return
+
+        waiterIndex.forEachCandidate(event) { waitingEvent ->
+            try {
+                tryComplete(event, waitingEvent)
+            } catch (e: Exception) {
+                exceptionHandler.handleException(event, e, "EventWaiter handler for $event")
             }
         }
     }
 
+    @Suppress("UNCHECKED_CAST")
+    private fun tryComplete(event: Event, waitingEvent: WaitingEvent<*>) {
+        if (waitingEvent.completableFuture.isDone) return
+        if (!waitingEvent.matchesKeys(event)) return
+
+        for (precondition in waitingEvent.preconditions) {
+            precondition as Predicate<Event>
+            if (!precondition.test(event)) {
+                logger.trace { "Failed ${event.javaClass.simpleNestedName} precondition #${waitingEvent.preconditions.indexOf(precondition)} $precondition with $event" }
+                return
+            }
+        }
+
+        // May have been completed concurrently, the completion listener removes it from the index in any case
+        (waitingEvent.completableFuture as CompletableFuture<Event>).complete(event)
+    }
+
     private val warnedEventTypes: MutableSet<Class<out Event>> = context.config.ignoredEventIntents.toMutableSet()
 
     private fun checkEventIntents(eventType: Class<out Event>) {
@@ -0,0 +1,52 @@
+package io.github.freya022.botcommands.internal.core.waiter
+
+import net.dv8tion.jda.api.events.Event
+import java.util.concurrent.ConcurrentHashMap
+
+private val keyTypes = WaiterKeyType.values()
+
+/**
+ * Waiters of a single event type, indexed by their most selective [key][WaiterKeyType],
+ * so events are only tested against waiters without keys, and waiters having the same IDs as the event.
+ *
+ * All operations are lock-free, iteration is weakly consistent.
+ */
+internal class WaiterIndex {
+    private val unkeyed: MutableSet<WaitingEvent<*>> = ConcurrentHashMap.newKeySet()
+    private val keyed: Array<ConcurrentHashMap<Long, MutableSet<WaitingEvent<*>>>> =
+        Array(keyTypes.size) { ConcurrentHashMap() }
+
+    fun add(waitingEvent: WaitingEvent<*>) {
+        val (keyType, id) = waitingEvent.indexKey ?: run {
+            unkeyed.add(waitingEvent)
+            return
+        }
+        keyed[keyType.ordinal].compute(id) { _, waitingEvents ->
+            (waitingEvents ?: ConcurrentHashMap.newKeySet()).also { it.add(waitingEvent) }
+        }
+    }
+
+    fun remove(waitingEvent: WaitingEvent<*>) {
+        val (keyType, id) = waitingEvent.indexKey ?: run {
+            unkeyed.remove(waitingEvent)
+            return
+        }
+        // Drop the set once empty, atomically with the additions on the same ID
+        keyed[keyType.ordinal].computeIfPresent(id) { _, waitingEvents ->
+            waitingEvents.remove(waitingEvent)
+            waitingEvents.ifEmpty { null }
+        }
+    }
+
+    fun forEachCandidate(event: Event, block: (WaitingEvent<*>) -> Unit) {
+        unkeyed.forEach(block)
+
+        for (keyType in keyTypes) {
+            val waitingEventsById = keyed[keyType.ordinal]
+            if (waitingEventsById.isEmpty()) continue
+
+            val id = keyType.getKey(event) ?: continue
+            waitingEventsById[id]?.forEach(block)
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.freya022.botcommands.internal.core.waiter
+
+import net.dv8tion.jda.api.events.Event
+import net.dv8tion.jda.api.events.channel.GenericChannelEvent
+import net.dv8tion.jda.api.events.guild.GenericGuildEvent
+import net.dv8tion.jda.api.events.guild.member.GenericGuildMemberEvent
+import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent
+import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent
+import net.dv8tion.jda.api.events.message.GenericMessageEvent
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent
+import net.dv8tion.jda.api.events.message.MessageUpdateEvent
+import net.dv8tion.jda.api.events.message.react.GenericMessageReactionEvent
+import net.dv8tion.jda.api.events.user.GenericUserEvent
+
+/**
+ * IDs by which event waiters can be indexed.
+ *
+ * Entries are declared from the most selective to the least selective,
+ * a waiter with multiple keys is indexed by its most selective one.
+ */
+internal enum class WaiterKeyType(private val supportedTypes: List<Class<out Event>>) {
+    MESSAGE(listOf(GenericMessageEvent::class.java, GenericComponentInteractionCreateEvent::class.java)) {
+        override fun getKey(event: Event): Long? = when (event) {
+            is GenericMessageEvent -> event.messageIdLong
+            is GenericComponentInteractionCreateEvent -> event.messageIdLong
+            else -> null
+        }
+    },
+    USER(listOf(
+        MessageReceivedEvent::class.java,
+        MessageUpdateEvent::class.java,
+        GenericMessageReactionEvent::class.java,
+        GenericInteractionCreateEvent::class.java,
+        GenericGuildMemberEvent::class.java,
+        GenericUserEvent::class.java
+    )) {
+        override fun getKey(event: Event): Long? = when (event) {
+            is MessageReceivedEvent -> event.author.idLong
+            is MessageUpdateEvent -> event.author.idLong
+            is GenericMessageReactionEvent -> event.userIdLong
+            is GenericInteractionCreateEvent -> event.user.idLong
+            is GenericGuildMemberEvent -> event.user.idLong
+            is GenericUserEvent -> event.user.idLong
+            else -> null
+        }
+    },
+    CHANNEL(listOf(GenericMessageEvent::class.java, GenericInteractionCreateEvent::class.java, GenericChannelEvent::class.java)) {
+        override fun getKey(event: Event): Long? = when (event) {
+            is GenericMessageEvent -> event.channel.idLong
+            // Zero when the interaction does not come from a channel
+            is GenericInteractionCreateEvent -> event.channelIdLong.takeIf { it != 0L }
+            is GenericChannelEvent -> event.channel.idLong
+            else -> null
+        }
+    },
+    GUILD(listOf(GenericGuildEvent::class.java, GenericMessageEvent::class.java, GenericInteractionCreateEvent::class.java)) {
+        override fun getKey(event: Event): Long? = when (event) {
+            is GenericGuildEvent -> event.guild.idLong
+            is GenericMessageEvent -> if (event.isFromGuild) event.guild.idLong else null
+            is GenericInteractionCreateEvent -> event.guild?.idLong
+            else -> null
+        }
+    };
+
+    /**
+     * Returns the ID of this key type from the event, or `null` if the event has none.
+     */
+    abstract fun getKey(event: Event): Long?
+
+    /**
+     * Whether all events of the given type can have an ID of this key type.
+     */
+    fun isSupported(eventType: Class<out Event>): Boolean = supportedTypes.any { it.isAssignableFrom(eventType) }
+}
@@ -9,6 +9,8 @@ import kotlin.time.Duration
 
 internal class WaitingEvent<T : Event> internal constructor(
     val eventType: Class<T>,
+    /** IDs the event must have, iterated from the most selective key type */
+    val keys: Map<WaiterKeyType, Long>,
     val preconditions: List<Predicate<T>>,
     val onComplete: CompletedFutureEvent<T>?,
     val onSuccess: Consumer<T>?,
@@ -17,4 +19,9 @@ internal class WaitingEvent<T : Event> internal constructor(
     val timeout: Duration?
 ) {
     val completableFuture = CompletableFuture<T>()
+
+    /** Key under which this waiter is indexed, fixed at creation so it is the same when adding and removing it */
+    val indexKey: Map.Entry<WaiterKeyType, Long>? = keys.entries.firstOrNull()
+
+    fun matchesKeys(event: Event): Boolean = keys.all { (keyType, id) -> keyType.getKey(event) == id }
 }
\ No newline at end of file
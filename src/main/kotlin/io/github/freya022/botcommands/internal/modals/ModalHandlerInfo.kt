@@ -10,6 +10,7 @@ import io.github.freya022.botcommands.internal.IExecutableInteractionInfo
 import io.github.freya022.botcommands.internal.core.BContextImpl
 import io.github.freya022.botcommands.internal.core.options.Option
 import io.github.freya022.botcommands.internal.core.options.OptionType
+import io.github.freya022.botcommands.internal.core.options.OptionValues
 import io.github.freya022.botcommands.internal.core.reflection.MemberParamFunction
 import io.github.freya022.botcommands.internal.parameters.CustomMethodOption
 import io.github.freya022.botcommands.internal.parameters.OptionParameter
@@ -18,7 +19,6 @@ import io.github.freya022.botcommands.internal.throwUser
 import io.github.freya022.botcommands.internal.transformParameters
 import io.github.freya022.botcommands.internal.utils.*
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent
-import kotlin.reflect.full.callSuspendBy
 import kotlin.reflect.full.findAnnotation
 import kotlin.reflect.full.hasAnnotation
 import kotlin.reflect.jvm.jvmErasure
@@ -81,7 +81,7 @@ class ModalHandlerInfo internal constructor(
                 throwInternal(::tryInsertOption, "Insertion function shouldn't have been aborted")
         }
 
-        function.callSuspendBy(parameters.mapFinalParameters(event, optionValues))
+        eventFunction.invoker.callSuspend(parameters.mapFinalParameters(event, optionValues))
 
         return true
     }
@@ -91,7 +91,7 @@ class ModalHandlerInfo internal constructor(
         option: Option,
         inputNameToInputIdMap: TObjectLongMap<String>,
         userDataIterator: Iterator<Any?>,
-        optionMap: MutableMap<Option, Any?>
+        optionValues: OptionValues
     ): InsertOptionResult {
         val value = when (option.optionType) {
             OptionType.OPTION -> {
@@ -136,6 +136,6 @@ class ModalHandlerInfo internal constructor(
             else -> throwInternal("${option.optionType} has not been implemented")
         }
 
-        return tryInsertNullableOption(value, option, optionMap)
+        return tryInsertNullableOption(value, option, optionValues)
     }
 }
\ No newline at end of file
@@ -6,10 +6,7 @@ import io.github.freya022.botcommands.api.core.BContext
 import io.github.freya022.botcommands.api.core.service.annotations.BService
 import io.github.freya022.botcommands.api.modals.Modals
 import io.github.freya022.botcommands.internal.core.ExceptionHandler
-import io.github.freya022.botcommands.internal.utils.TimeoutExceptionAccessor
-import io.github.freya022.botcommands.internal.utils.classRef
-import io.github.freya022.botcommands.internal.utils.launchCatchingDelayed
-import io.github.freya022.botcommands.internal.utils.throwInternal
+import io.github.freya022.botcommands.internal.utils.*
 import io.github.oshai.kotlinlogging.KotlinLogging
 import kotlinx.coroutines.CancellableContinuation
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent
@@ -45,31 +42,42 @@ internal class ModalMaps(context: BContext) {
     //Modals input IDs are temporarily stored here while it waits for its ModalBuilder owner to be built, and it's InputData to be associated with it
     private val inputMap: TLongObjectMap<InputData> = TLongObjectHashMap()
 
+    // Values are the modal IDs, keys are separate as modal IDs do not fit in an int
+    private val timeoutWheel = TimingWheel<Long>(timeoutScope) { expired ->
+        expired.forEachValue { internalId ->
+            timeoutScope.launchCatching({ handleTimeoutException(it) }) { onTimeout(internalId) }
+            true
+        }
+    }
+    private var lastTimeoutKey: Int = 0
+
     fun insertModal(partialModalData: PartialModalData): String {
         return modalLock.withLock {
             val internalId: Long = generateId(modalMap)
 
-            val job = partialModalData.timeoutInfo?.let { timeoutInfo ->
-                // Run timeout user code on the modal scope again
-                timeoutScope.launchCatchingDelayed(timeoutInfo.timeout, { handleTimeoutException(it) }) {
-                    val data = modalLock.withLock { modalMap.remove(internalId) }
-                    if (data != null) { //If the timeout was reached without the modal being used
-                        if (data.continuations.isNotEmpty()) {
-                            val timeoutException = TimeoutExceptionAccessor.createModalTimeoutException()
-                            for (continuation in data.continuations) {
-                                continuation.cancel(timeoutException)
-                            }
-                        }
-                        timeoutInfo.onTimeout?.invoke()
-                    }
-                }
+            val timeoutKey = partialModalData.timeoutInfo?.let { timeoutInfo ->
+                val timeoutKey = lastTimeoutKey++
+                timeoutWheel.schedule(timeoutKey, timeoutInfo.timeout, internalId)
+                timeoutKey
             }
 
-            modalMap.put(internalId, ModalData(partialModalData, job))
+            modalMap.put(internalId, ModalData(partialModalData, timeoutKey))
             getModalId(internalId)
         }
     }
 
+    private suspend fun onTimeout(internalId: Long) {
+        // Modal was used right before timing out
+        val data = modalLock.withLock { modalMap.remove(internalId) } ?: return
+        if (data.continuations.isNotEmpty()) {
+            val timeoutException = TimeoutExceptionAccessor.createModalTimeoutException()
+            for (continuation in data.continuations) {
+                continuation.cancel(timeoutException)
+            }
+        }
+        data.timeoutInfo?.onTimeout?.invoke()
+    }
+
     private fun handleTimeoutException(e: Throwable) {
         exceptionHandler.handleException(null, e, "modal timeout handler", emptyMap())
     }
@@ -94,7 +102,7 @@ internal class ModalMaps(context: BContext) {
     }
 
     fun consumeModal(modalId: Long): ModalData? = modalLock.withLock {
-       modalMap.remove(modalId)?.also { it.cancelTimeout() }
+       modalMap.remove(modalId)?.also { data -> data.timeoutKey?.let(timeoutWheel::cancel) }
     }
 
     fun consumeInput(inputId: Long): InputData? {
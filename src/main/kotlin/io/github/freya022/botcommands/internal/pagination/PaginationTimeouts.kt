@@ -0,0 +1,48 @@
+package io.github.freya022.botcommands.internal.pagination
+
+import io.github.freya022.botcommands.api.components.annotations.RequiresComponents
+import io.github.freya022.botcommands.api.core.BContext
+import io.github.freya022.botcommands.api.core.service.annotations.BService
+import io.github.freya022.botcommands.internal.core.ExceptionHandler
+import io.github.freya022.botcommands.internal.utils.TimingWheel
+import io.github.freya022.botcommands.internal.utils.launchCatching
+import io.github.oshai.kotlinlogging.KotlinLogging
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.time.Duration
+
+private val logger = KotlinLogging.logger { }
+
+/**
+ * Schedules the timeouts of all pagination instances on a single timing wheel.
+ */
+@BService
+@RequiresComponents
+internal class PaginationTimeouts(context: BContext) {
+    private val timeoutScope = context.coroutineScopesConfig.paginationTimeoutScope
+    private val exceptionHandler = ExceptionHandler(context, logger)
+
+    private val timeoutWheel = TimingWheel<suspend () -> Unit>(timeoutScope) { expired ->
+        expired.forEachValue { onTimeout ->
+            timeoutScope.launchCatching({ handleTimeoutException(it) }) { onTimeout() }
+            true
+        }
+    }
+    private val lastKey = AtomicInteger()
+
+    fun nextKey(): Int = lastKey.getAndIncrement()
+
+    /**
+     * Schedules [onTimeout] to run after [timeout], replacing the previous timeout with the same [key].
+     */
+    fun schedule(key: Int, timeout: Duration, onTimeout: suspend () -> Unit) {
+        timeoutWheel.schedule(key, timeout, onTimeout)
+    }
+
+    fun cancel(key: Int) {
+        timeoutWheel.cancel(key)
+    }
+
+    private fun handleTimeoutException(e: Throwable) {
+        exceptionHandler.handleException(null, e, "timeout handler", emptyMap())
+    }
+}
@@ -2,10 +2,11 @@ package io.github.freya022.botcommands.internal.utils
 
 import io.github.freya022.botcommands.internal.IExecutableInteractionInfo
 import io.github.freya022.botcommands.internal.core.options.Option
+import io.github.freya022.botcommands.internal.core.options.OptionValues
+import io.github.freya022.botcommands.internal.core.reflection.FunctionArguments
 import io.github.freya022.botcommands.internal.parameters.IAggregatedParameter
 import io.github.freya022.botcommands.internal.parameters.MethodParameter
 import io.github.freya022.botcommands.internal.utils.ReflectionUtils.function
-import kotlin.reflect.KParameter
 
 internal enum class InsertOptionResult {
     OK,
@@ -13,26 +14,35 @@ internal enum class InsertOptionResult {
     ABORT
 }
 
-internal inline fun List<IAggregatedParameter>.mapOptions(block: MutableMap<Option, Any?>.(Option) -> Unit): Map<Option, Any?> {
-    val options = this.flatMap { it.allOptions }
-    return buildMap(options.size) {
-        options.forEach { block(it) }
+internal inline fun List<IAggregatedParameter>.mapOptions(block: OptionValues.(Option) -> Unit): OptionValues {
+    val optionValues = OptionValues(sumOf { it.optionCount })
+    for (parameter in this) {
+        // Options must be visited in the same order as in insertAggregate, see OptionValues
+        val options = if (parameter.nestedAggregatedParameters.isEmpty()) parameter.options else parameter.allOptions
+        for (option in options) {
+            optionValues.nextSlot()
+            optionValues.block(option)
+        }
     }
+    return optionValues
 }
 
-internal fun tryInsertNullableOption(value: Any?, option: Option, optionMap: MutableMap<Option, Any?>): InsertOptionResult {
+internal val IAggregatedParameter.optionCount: Int
+    get() = options.size + nestedAggregatedParameters.sumOf { it.optionCount }
+
+internal fun tryInsertNullableOption(value: Any?, option: Option, optionValues: OptionValues): InsertOptionResult {
     if (value != null) {
-        optionMap[option] = value
+        optionValues.put(value)
         return InsertOptionResult.OK
     } else if (option.isVararg) {
         //Continue looking at other options
     } else if (option.isOptionalOrNullable) { //Default or nullable
         //Put null/default value if parameter is not a kotlin default value
         if (option.kParameter.isOptional) {
-            //Kotlin default value, don't add anything to the parameters map
+            //Kotlin default value, don't add anything to the option values
         } else {
             //Nullable
-            optionMap[option] = option.nullValue
+            optionValues.put(option.nullValue)
         }
     } else {
         //Value is null and is required
@@ -45,73 +55,92 @@ internal fun tryInsertNullableOption(value: Any?, option: Option, optionMap: Mut
 context(IExecutableInteractionInfo)
 internal suspend fun Collection<IAggregatedParameter>.mapFinalParameters(
     firstParam: Any,
-    optionValues: Map<Option, Any?>
-) = buildMap(eventFunction.parametersSize) {
-    this[eventFunction.instanceParameter] = instance
-    this[eventFunction.firstParameter] = firstParam
+    optionValues: OptionValues
+): FunctionArguments {
+    val arguments = FunctionArguments(eventFunction.parametersSize)
+    arguments[eventFunction.instanceParameter] = instance
+    arguments[eventFunction.firstParameter] = firstParam
 
-    for (parameter in this@mapFinalParameters) {
-        insertAggregate(firstParam, this, optionValues, parameter)
+    var slot = 0
+    for (parameter in this) {
+        slot = insertAggregate(firstParam, arguments, optionValues, slot, parameter)
     }
+
+    return arguments
 }
 
-internal suspend fun insertAggregate(firstParam: Any, aggregatedObjects: MutableMap<KParameter, Any?>, optionValues: Map<Option, Any?>, parameter: IAggregatedParameter) {
+/**
+ * @return The slot of the next option
+ */
+internal suspend fun insertAggregate(
+    firstParam: Any,
+    aggregatedObjects: FunctionArguments,
+    optionValues: OptionValues,
+    firstSlot: Int,
+    parameter: IAggregatedParameter
+): Int {
     val aggregator = parameter.aggregator
 
     if (aggregator.isSingleAggregator) {
-        val option = parameter.options.first()
         //This is necessary to distinguish between null mappings and default mappings
-        if (option in optionValues) {
+        if (optionValues.isPresent(firstSlot)) {
             //No need to check nullabilities, it's already handled when computing option values
-            aggregatedObjects[parameter] = optionValues[option]
-        }
-    } else {
-        val aggregatorArguments: MutableMap<KParameter, Any?> = HashMap(aggregator.parametersSize)
-        for (option in parameter.options) {
-            //This is necessary to distinguish between null mappings and default mappings
-            if (option in optionValues) {
-                aggregatorArguments[option] = optionValues[option]
-            }
+            aggregatedObjects[parameter] = optionValues[firstSlot]
         }
 
-        for (nestedAggregatedParameter in parameter.nestedAggregatedParameters) {
-            insertAggregate(firstParam, aggregatorArguments, optionValues, nestedAggregatedParameter)
+        return firstSlot + parameter.optionCount
+    }
+
+    val aggregatorArguments = FunctionArguments(aggregator.parametersSize)
+    var slot = firstSlot
+    for (option in parameter.options) {
+        //This is necessary to distinguish between null mappings and default mappings
+        if (optionValues.isPresent(slot)) {
+            aggregatorArguments[option] = optionValues[slot]
         }
+        slot++
+    }
 
-        val aggregatedObject = aggregator.aggregate(firstParam, aggregatorArguments)
-        //Check nullability against parameter
-        if (aggregatedObject != null) {
-            aggregatedObjects[parameter] = aggregatedObject
-        } else {
-            if (parameter.isNullableOrOptional) { //Default or nullable
-                //Put null/default value if parameter is not a kotlin default value
-                return if (parameter.kParameter.isOptional) {
-                    //Kotlin default value, don't add anything to the parameters map
-                } else {
-                    //Nullable
-                    aggregatedObjects[parameter] = when {
-                        parameter.isPrimitive -> throwInternal("Cannot have user-defined aggregators returning primitives")
-                        else -> null
-                    }
-                }
+    for (nestedAggregatedParameter in parameter.nestedAggregatedParameters) {
+        slot = insertAggregate(firstParam, aggregatorArguments, optionValues, slot, nestedAggregatedParameter)
+    }
+
+    val aggregatedObject = aggregator.aggregate(firstParam, aggregatorArguments)
+    //Check nullability against parameter
+    if (aggregatedObject != null) {
+        aggregatedObjects[parameter] = aggregatedObject
+    } else {
+        if (parameter.isNullableOrOptional) { //Default or nullable
+            //Put null/default value if parameter is not a kotlin default value
+            if (parameter.kParameter.isOptional) {
+                //Kotlin default value, don't add anything to the arguments
             } else {
-                throwUser(parameter.executableParameter.function, "Aggregated parameter couldn't be resolved at option ${parameter.name}")
+                //Nullable
+                aggregatedObjects[parameter] = when {
+                    parameter.isPrimitive -> throwInternal("Cannot have user-defined aggregators returning primitives")
+                    else -> null
+                }
             }
+        } else {
+            throwUser(parameter.executableParameter.function, "Aggregated parameter couldn't be resolved at option ${parameter.name}")
         }
     }
+
+    return slot
 }
 
-private operator fun MutableMap<KParameter, Any?>.set(parameter: MethodParameter, obj: Any?): Any? = obj.also {
+private operator fun FunctionArguments.set(parameter: MethodParameter, obj: Any?) {
     this[parameter.executableParameter] = obj
 }
 
 @Suppress("UNCHECKED_CAST")
-private operator fun MutableMap<KParameter, Any?>.set(option: Option, obj: Any?): Any? = obj.also {
+private operator fun FunctionArguments.set(option: Option, obj: Any?) {
+    val parameter = option.executableParameter
     if (option.isVararg) {
-        (this.getOrPut(option.executableParameter) {
-            arrayListOf<Any?>()
-        } as MutableList<Any?>).add(obj)
+        if (!isPresent(parameter))
+            this[parameter] = arrayListOf<Any?>()
+        (this[parameter] as MutableList<Any?>).add(obj)
     } else {
-        this[option.executableParameter] = obj
+        this[parameter] = obj
     }
-}
\ No newline at end of file
+}
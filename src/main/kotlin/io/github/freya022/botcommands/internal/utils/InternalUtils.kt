@@ -55,15 +55,6 @@ internal inline fun CoroutineScope.launchCatching(
     runCatching(catchBlock, block)
 }
 
-internal inline fun CoroutineScope.launchCatchingDelayed(
-    delay: Duration,
-    crossinline catchBlock: suspend CoroutineScope.(Throwable) -> Unit,
-    crossinline block: suspend CoroutineScope.() -> Unit
-): Job = launch {
-    delay(delay)
-    runCatching(catchBlock, block)
-}
-
 private suspend inline fun CoroutineScope.runCatching(
     crossinline catchBlock: suspend (CoroutineScope, Throwable) -> Unit,
     crossinline block: suspend (CoroutineScope) -> Unit
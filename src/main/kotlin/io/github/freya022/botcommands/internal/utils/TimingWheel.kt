@@ -0,0 +1,138 @@
+package io.github.freya022.botcommands.internal.utils
+
+import gnu.trove.map.TIntObjectMap
+import gnu.trove.map.hash.TIntObjectHashMap
+import gnu.trove.set.hash.TIntHashSet
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.nanoseconds
+import kotlin.time.TimeSource
+
+/**
+ * Hashed timing wheel, scheduling timeouts identified by an int key,
+ * and firing all the timeouts which expired during the same tick in a single batch.
+ *
+ * Timeouts are put in one of the [wheelSize] buckets depending on their deadline,
+ * each tick then only checks the timeouts from the current bucket, instead of suspending a coroutine per timeout.
+ *
+ * The wheel only ticks while timeouts are scheduled.
+ *
+ * @param T            Type of the values associated to the timeouts
+ * @param scope        The scope in which the wheel ticks and [onExpired] runs
+ * @param tickDuration The precision of the timeouts, timeouts will expire up to one tick late
+ * @param onExpired    Receives the keys and values of the timeouts which expired during a tick
+ */
+internal class TimingWheel<T>(
+    private val scope: CoroutineScope,
+    tickDuration: Duration = 100.milliseconds,
+    private val wheelSize: Int = 512,
+    private val onExpired: suspend (expired: TIntObjectMap<T>) -> Unit
+) {
+    private class Timeout<T>(val deadlineTick: Long, val value: T)
+
+    private val tickNanos: Long = tickDuration.inWholeNanoseconds
+    private val startMark = TimeSource.Monotonic.markNow()
+
+    private val lock = ReentrantLock()
+    private val timeouts = TIntObjectHashMap<Timeout<T>>()
+    private val buckets = Array(wheelSize) { TIntHashSet() }
+    private var lastTick: Long = 0
+    private var tickJob: Job? = null
+
+    init {
+        require(tickNanos > 0) { "Tick duration must be positive" }
+        require(wheelSize > 0) { "Wheel size must be positive" }
+    }
+
+    val size: Int get() = lock.withLock { timeouts.size() }
+
+    /**
+     * Schedules a timeout expiring after [delay], replacing any timeout with the same [key].
+     */
+    fun schedule(key: Int, delay: Duration, value: T): Unit = lock.withLock {
+        removeTimeout(key)
+
+        // Timeouts expire on the next tick at the earliest
+        val deadlineTick = maxOf(lastTick + 1, ceilTick(startMark.elapsedNow() + delay))
+        timeouts.put(key, Timeout(deadlineTick, value))
+        buckets[bucketIndex(deadlineTick)].add(key)
+
+        if (tickJob == null)
+            tickJob = scope.launch { runTicks() }
+    }
+
+    /**
+     * Cancels the timeout with the given [key].
+     *
+     * @return The value of the cancelled timeout, or `null` if no timeout was scheduled
+     */
+    fun cancel(key: Int): T? = lock.withLock {
+        removeTimeout(key)?.value
+    }
+
+    private fun removeTimeout(key: Int): Timeout<T>? {
+        val timeout = timeouts.remove(key) ?: return null
+        buckets[bucketIndex(timeout.deadlineTick)].remove(key)
+        return timeout
+    }
+
+    private suspend fun runTicks() {
+        while (true) {
+            val nextTickNanos = (lastTick + 1) * tickNanos - startMark.elapsedNow().inWholeNanoseconds
+            if (nextTickNanos > 0)
+                delay(nextTickNanos.nanoseconds)
+
+            var isEmpty = false
+            val expired = lock.withLock {
+                val expired = expireTimeouts(startMark.elapsedNow().inWholeNanoseconds / tickNanos)
+                if (timeouts.isEmpty) {
+                    // Let the next schedule restart the wheel
+                    tickJob = null
+                    isEmpty = true
+                }
+                expired
+            }
+
+            if (!expired.isEmpty)
+                scope.launch { onExpired(expired) }
+            if (isEmpty)
+                return
+        }
+    }
+
+    private fun expireTimeouts(currentTick: Long): TIntObjectMap<T> {
+        val expired = TIntObjectHashMap<T>()
+        if (currentTick <= lastTick) return expired
+
+        // After a long pause, checking each bucket once is enough as deadlines are checked
+        val firstTick = maxOf(lastTick + 1, currentTick - wheelSize + 1)
+        for (tick in firstTick..currentTick) {
+            val iterator = buckets[bucketIndex(tick)].iterator()
+            while (iterator.hasNext()) {
+                val key = iterator.next()
+                val timeout = timeouts[key]
+                if (timeout.deadlineTick <= currentTick) {
+                    iterator.remove()
+                    timeouts.remove(key)
+                    expired.put(key, timeout.value)
+                }
+            }
+        }
+        lastTick = currentTick
+
+        return expired
+    }
+
+    private fun ceilTick(duration: Duration): Long {
+        val nanos = duration.inWholeNanoseconds
+        return nanos / tickNanos + if (nanos % tickNanos != 0L) 1 else 0
+    }
+
+    private fun bucketIndex(tick: Long): Int = (tick % wheelSize).toInt()
+}
@@ -0,0 +1,24 @@
+------------------------------------------------------ 5th migration script for BotCommands ------------------------------------------------------
+---------------------------------- Make sure to run the previous scripts (chronological order) before this one -----------------------------------
+
+set schema 'bc';
+
+update bc_version
+set version = '3.0.0-alpha.14'
+where one_row = true;
+
+create table bc_rate_limit_bucket
+(
+    group_name           text   not null,
+    -- IDs are 0 when absent
+    place_id             bigint not null,
+    user_id              bigint not null,
+    -- Null until the bucket is first used
+    state                bytea  null,
+    -- The bucket is entirely refilled after this point, it is then deleted
+    expiration_timestamp timestamp with time zone not null,
+
+    primary key (group_name, place_id, user_id)
+);
+
+create index bc_rate_limit_bucket_expiration_timestamp_index on bc_rate_limit_bucket (group_name, expiration_timestamp);
@@ -0,0 +1,10 @@
+------------------------------------------------------ 4th migration script for BotCommands ------------------------------------------------------
+---------------------------------- Make sure to run the previous scripts (chronological order) before this one -----------------------------------
+
+set schema 'bc';
+
+update bc_version
+set version = '3.0.0-alpha.14'
+where one_row = true;
+
+create index bc_persistent_timeout_expiration_timestamp_index on bc_persistent_timeout (expiration_timestamp);
\ No newline at end of file
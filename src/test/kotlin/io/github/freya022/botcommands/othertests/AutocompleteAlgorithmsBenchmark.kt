@@ -0,0 +1,53 @@
+package io.github.freya022.botcommands.othertests
+
+import io.github.freya022.botcommands.api.commands.application.slash.autocomplete.AutocompleteAlgorithms
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import kotlin.random.Random
+import kotlin.time.Duration
+import kotlin.time.measureTime
+
+/**
+ * Times sequential and parallel fuzzy matching over 1k, 10k and 100k items,
+ * and checks both return the same results.
+ *
+ * Not run by default, use `mvn test -Dtest=AutocompleteAlgorithmsBenchmark`.
+ */
+object AutocompleteAlgorithmsBenchmark {
+    private val sizes = listOf(1_000, 10_000, 100_000)
+    private val queries = listOf("e", "ban", "memb", "sup role")
+
+    @Test
+    fun `fuzzy matching timings`() {
+        for (size in sizes) {
+            val items = generateItems(size)
+            for (query in queries) {
+                val sequential = AutocompleteAlgorithms.fuzzyMatching(items, { it }, query, 25, parallel = false)
+                val parallel = AutocompleteAlgorithms.fuzzyMatching(items, { it }, query, 25, parallel = true)
+                assertEquals(sequential.map { it.string }, parallel.map { it.string }, "Different results for '$query' over $size items")
+            }
+
+            val sequentialTime = measureMedian { query -> AutocompleteAlgorithms.fuzzyMatching(items, { it }, query, 25, parallel = false) }
+            val parallelTime = measureMedian { query -> AutocompleteAlgorithms.fuzzyMatching(items, { it }, query, 25, parallel = true) }
+            val continuityTime = measureMedian { query -> AutocompleteAlgorithms.fuzzyMatchingWithContinuity(items, { it }, query, 25) }
+            println("$size items: sequential = $sequentialTime, parallel = $parallelTime, continuity = $continuityTime")
+        }
+    }
+
+    // Median time to match all the queries, after warming up
+    private inline fun measureMedian(block: (query: String) -> Unit): Duration {
+        repeat(5) { queries.forEach(block) }
+        return List(11) { measureTime { queries.forEach(block) } }.sorted()[5]
+    }
+
+    // Deterministic names made of 1 to 3 words, similar to tags or role names
+    private fun generateItems(size: Int): List<String> {
+        val random = Random(size)
+        val syllables = listOf("ban", "mem", "ber", "sup", "port", "role", "tag", "mod", "er", "ate", "on", "line", "ex", "tra")
+        return List(size) {
+            List(random.nextInt(1, 4)) {
+                List(random.nextInt(1, 4)) { syllables.random(random) }.joinToString("")
+            }.joinToString(" ")
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.freya022.botcommands.othertests
+
+import io.github.freya022.botcommands.internal.core.reflection.FunctionArguments
+import io.github.freya022.botcommands.internal.core.reflection.FunctionInvoker
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.yield
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import kotlin.reflect.KFunction
+import kotlin.reflect.full.primaryConstructor
+
+// Not private, kotlin-reflect needs to unbox it
+@JvmInline
+internal value class UserId(val id: Long)
+
+private class InvokedFunctions {
+    // The default of the last parameter is in the second mask
+    fun manyParameters(
+        p0: Int = -1, p1: Int, p2: Int, p3: Int, p4: Int, p5: Int,
+        p6: Int, p7: Int, p8: Int, p9: Int, p10: Int, p11: Int,
+        p12: Int, p13: Int, p14: Int, p15: Int, p16: Int, p17: Int,
+        p18: Int, p19: Int, p20: Int, p21: Int, p22: Int, p23: Int,
+        p24: Int, p25: Int, p26: Int, p27: Int, p28: Int, p29: Int,
+        p30: Int, p31: Int, p32: Int, p33: String = "default"
+    ): String = "$p0 ${listOf(p1, p2, p3, p4, p5, p6, p7, p8, p9, p10, p11, p12, p13, p14, p15, p16, p17, p18, p19, p20, p21, p22, p23, p24, p25, p26, p27, p28, p29, p30, p31, p32).sum()} $p33"
+
+    suspend fun suspendingDefaults(a: Int, b: String = "b"): String {
+        // Makes sure the function really suspends
+        yield()
+        return "$a$b"
+    }
+
+    fun varargDefaults(vararg values: String, separator: String = ","): String = values.joinToString(separator)
+
+    fun valueClassDefaults(userId: UserId, name: String = "user"): String = "$name ${userId.id}"
+}
+
+private class ConstructedClass(val a: Int, val b: String = "b", val c: Boolean = false)
+
+object FunctionInvokerTest {
+    private val instance = InvokedFunctions()
+
+    @Test
+    fun `defaults past 32 parameters`() {
+        val function = InvokedFunctions::manyParameters
+        val arguments = createArguments(function, (2..33).associateWith { it - 1 } + (0 to instance))
+        assertEquals("-1 528 default", call(function, arguments))
+
+        val allArguments = createArguments(function, (2..33).associateWith { it - 1 } + mapOf(0 to instance, 1 to 5, 34 to "set"))
+        assertEquals("5 528 set", call(function, allArguments))
+    }
+
+    @Test
+    fun `suspend function with defaults`() {
+        val function = InvokedFunctions::suspendingDefaults
+        assertEquals("1b", call(function, createArguments(function, mapOf(0 to instance, 1 to 1))))
+        assertEquals("1c", call(function, createArguments(function, mapOf(0 to instance, 1 to 1, 2 to "c"))))
+    }
+
+    @Test
+    fun `constructor with defaults`() {
+        val constructor = ConstructedClass::class.primaryConstructor!!
+        val constructed = call(constructor, createArguments(constructor, mapOf(0 to 1, 2 to true)))
+        assertEquals(1, constructed.a)
+        assertEquals("b", constructed.b)
+        assertEquals(true, constructed.c)
+    }
+
+    @Test
+    fun `vararg and value class functions fall back to kotlin-reflect`() {
+        val varargFunction = InvokedFunctions::varargDefaults
+        assertEquals("a,b", call(varargFunction, createArguments(varargFunction, mapOf(0 to instance, 1 to arrayOf("a", "b")))))
+        assertEquals("a b", runBlocking { FunctionInvoker(varargFunction).callSuspend(instance, arrayOf("a", "b"), " ") })
+
+        val valueClassFunction = InvokedFunctions::valueClassDefaults
+        assertEquals("user 42", call(valueClassFunction, createArguments(valueClassFunction, mapOf(0 to instance, 1 to UserId(42)))))
+    }
+
+    // Arguments by parameter index, missing parameters use their default value
+    private fun createArguments(function: KFunction<*>, values: Map<Int, Any?>): FunctionArguments {
+        val arguments = FunctionArguments(function.parameters.size)
+        values.forEach { (index, value) -> arguments[function.parameters[index]] = value }
+        return arguments
+    }
+
+    private fun <R> call(function: KFunction<R>, arguments: FunctionArguments): R =
+        runBlocking { FunctionInvoker(function).callSuspend(arguments) }
+}
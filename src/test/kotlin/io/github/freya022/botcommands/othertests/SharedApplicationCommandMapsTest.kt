@@ -0,0 +1,55 @@
+package io.github.freya022.botcommands.othertests
+
+import io.github.freya022.botcommands.internal.commands.application.IdentityKey
+import io.github.freya022.botcommands.internal.commands.application.MutableApplicationCommandMap
+import io.github.freya022.botcommands.internal.commands.application.SharedApplicationCommandMaps
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotSame
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+
+object SharedApplicationCommandMapsTest {
+    private const val GUILD_COUNT = 100
+
+    // Shared by all guilds, like resolvers and functions of the declarations
+    private val function = ::declaredCommand
+    private val sharedResolver = Any()
+
+    @Test
+    fun `guilds with identical declarations share one map`() {
+        val sharedMaps = SharedApplicationCommandMaps()
+        var builtMaps = 0
+        val maps = List(GUILD_COUNT) {
+            // Each guild updater builds its own signature
+            sharedMaps.get(createSignature(sharedResolver)) {
+                builtMaps++
+                MutableApplicationCommandMap.fromCommandList(emptyList())
+            }
+        }
+
+        assertEquals(1, builtMaps)
+        maps.forEach { assertSame(maps.first(), it) }
+    }
+
+    @Test
+    fun `per-guild handlers do not share maps`() {
+        val sharedMaps = SharedApplicationCommandMaps()
+        val sharedMap = sharedMaps.get(createSignature(sharedResolver)) { MutableApplicationCommandMap.fromCommandList(emptyList()) }
+        // Equal objects created for another guild are still compared by identity
+        val guildMap = sharedMaps.get(createSignature(Any())) { MutableApplicationCommandMap.fromCommandList(emptyList()) }
+
+        assertNotSame(sharedMap, guildMap)
+        assertSame(sharedMap, sharedMaps.get(createSignature(sharedResolver)) { MutableApplicationCommandMap.fromCommandList(emptyList()) })
+    }
+
+    // Same structure as ApplicationCommandsUpdater.commandsSignature, with new lists and strings each time
+    private fun createSignature(resolver: Any): List<Any?> = buildList {
+        add(function)
+        add(listOf("ban", "user").joinToString(" "))
+        add(buildString { append("""{"name":"user","type":6}""") })
+        add(IdentityKey(resolver))
+        add(IdentityKey(null))
+    }
+
+    private fun declaredCommand() {}
+}
@@ -0,0 +1,40 @@
+package io.github.freya022.botcommands.othertests
+
+import io.github.freya022.botcommands.internal.commands.text.StringTrie
+import io.github.freya022.botcommands.internal.commands.text.compilePrefixTrie
+import io.github.freya022.botcommands.internal.commands.text.findFirstPrefixLength
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Test
+
+object StringTrieTest {
+    private val trie = StringTrie(mapOf("ban" to 1, "bans" to 2, "band" to 3, "kick" to 4))
+
+    @Test
+    fun `get inside a range`() {
+        val text = "!bans list"
+        assertEquals(2, trie[text, 1, 5])
+        assertEquals(1, trie[text, 1, 4])
+        // Intermediate node without value
+        assertNull(trie[text, 1, 3])
+        assertNull(trie[text, 0, 4])
+        assertNull(trie["", 0, 0])
+    }
+
+    @Test
+    fun `prefixes are visited from the shortest to the longest`() {
+        val visited = arrayListOf<Pair<Int, Int>>()
+        trie.forEachPrefixOf("bans list") { length, value -> visited += length to value }
+        assertEquals(listOf(3 to 1, 4 to 2), visited)
+    }
+
+    @Test
+    fun `first prefix of the list wins with overlapping prefixes`() {
+        assertEquals(2, compilePrefixTrie(listOf("!!", "!")).findFirstPrefixLength("!!ping"))
+        assertEquals(1, compilePrefixTrie(listOf("!", "!!")).findFirstPrefixLength("!!ping"))
+        assertEquals(1, compilePrefixTrie(listOf("!!", "!")).findFirstPrefixLength("!ping"))
+        // Duplicates keep the index of their first occurrence
+        assertEquals(1, compilePrefixTrie(listOf("!", "!!", "!")).findFirstPrefixLength("!!ping"))
+        assertEquals(-1, compilePrefixTrie(listOf("!!", "!")).findFirstPrefixLength("?ping"))
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.freya022.botcommands.othertests
+
+import io.github.freya022.botcommands.api.commands.CommandPath
+import io.github.freya022.botcommands.internal.commands.text.TextVariationMatcher
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import kotlin.time.Duration
+import kotlin.time.measureTime
+
+/**
+ * Times the combined pattern of [TextVariationMatcher] against trying each pattern separately,
+ * on command sets shaped like the patterns built by CommandPattern from the built-in resolvers.
+ *
+ * Not run by default, use `mvn test -Dtest=TextVariationMatcherBenchmark`.
+ */
+object TextVariationMatcherBenchmark {
+    private const val USER = """(?:<@!?)?(\d+)>?"""
+    private const val ROLE = """(?:<@&)?(\d+)>?"""
+    private const val INT = """(\d+)"""
+    private const val DOUBLE = """([-+]?[0-9]*[.,]?[0-9]+)"""
+    private const val BOOLEAN = """(true|false)"""
+    private const val STRING = """(\X+)"""
+
+    private class CommandSet(val name: String, val patterns: List<String>, val inputs: List<String>)
+
+    private val commandSets = listOf(
+        CommandSet(
+            "ban",
+            listOf(
+                """$USER\s+$INT\s+$STRING""",
+                """$USER\s+$STRING""",
+                """$USER(?:\s+$INT)?""",
+            ),
+            listOf("<@222046562543468545> 7 spamming links", "<@!222046562543468545> spamming", "222046562543468545", "222046562543468545 3", "nobody")
+        ),
+        CommandSet(
+            "role",
+            listOf(
+                """$USER\s+$ROLE\s+$BOOLEAN""",
+                """$USER\s+$ROLE""",
+                """$ROLE""",
+            ),
+            listOf("<@222046562543468545> <@&801161492296499261> true", "<@222046562543468545> <@&801161492296499261>", "<@&801161492296499261>", "role")
+        ),
+        CommandSet(
+            "calc",
+            listOf(
+                """$INT\s+$INT""",
+                """$DOUBLE\s+$DOUBLE""",
+                """$DOUBLE(?:\s+$INT)?""",
+                """$BOOLEAN""",
+                """$STRING""",
+            ),
+            listOf("1 2", "1.5 2,5", "3.14", "3.14 2", "true", "one plus two")
+        ),
+    )
+
+    @Test
+    fun `variation matching timings`() {
+        for (commandSet in commandSets) {
+            val patterns = commandSet.patterns.map { it.toRegex() }
+            val matcher = TextVariationMatcher(patterns, CommandPath.of(commandSet.name))
+            for (input in commandSet.inputs) {
+                assertEquals(matchSeparately(patterns, input), matcher.match(input)?.variationIndex, "Different variation for '$input'")
+            }
+
+            val combinedTime = measureMedian { commandSet.inputs.forEach { matcher.match(it) } }
+            val separateTime = measureMedian { commandSet.inputs.forEach { matchSeparately(patterns, it) } }
+            println("${commandSet.name} (${patterns.size} variations, ${commandSet.inputs.size} inputs x 10k): combined = $combinedTime, separate = $separateTime")
+        }
+    }
+
+    private fun matchSeparately(patterns: List<Regex>, input: String): Int? {
+        patterns.forEachIndexed { index, pattern ->
+            if (pattern.matchEntire(input) != null) return index
+        }
+        return null
+    }
+
+    // Median time of 10k iterations, after warming up
+    private inline fun measureMedian(block: () -> Unit): Duration {
+        repeat(20_000) { block() }
+        return List(11) { measureTime { repeat(10_000) { block() } } }.sorted()[5]
+    }
+}
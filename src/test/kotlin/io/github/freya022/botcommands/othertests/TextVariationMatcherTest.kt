@@ -0,0 +1,64 @@
+package io.github.freya022.botcommands.othertests
+
+import io.github.freya022.botcommands.api.commands.CommandPath
+import io.github.freya022.botcommands.internal.commands.text.TextVariationMatcher
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Test
+
+object TextVariationMatcherTest {
+    // Null patterns are fallback variations
+    private val patterns: List<Regex?> = listOf(
+        Regex("""(\d+)(?:\s+(\d+))?"""),
+        null,
+        Regex("""(\d+)\s+(\w+)(?:\s+(\w+))?"""),
+        Regex("""(\w+)(?:\s+(\w+))?"""),
+    )
+    private val matcher = TextVariationMatcher(patterns, CommandPath.of("test"))
+
+    @Test
+    fun `optional groups match like the patterns tried separately`() {
+        val inputs = listOf("1", "1 2", "1 abc", "1 abc def", "abc", "abc def", "abc def ghi", "", " ")
+        for (input in inputs) {
+            assertEquals(matchSeparately(input), matchCombined(input), "Different match for '$input'")
+        }
+    }
+
+    @Test
+    fun `first accepting variation wins`() {
+        // Accepted by the first and last variations
+        assertEquals(0, matcher.match("1")?.variationIndex)
+        // Skips the fallback variation
+        assertEquals(2, matcher.match("1 abc")?.variationIndex)
+        assertEquals(3, matcher.match("abc")?.variationIndex)
+        assertNull(matcher.match("abc def ghi"))
+    }
+
+    @Test
+    fun `patterns with duplicate group names are tried separately`() {
+        val patterns = listOf(Regex("""(?<id>\d+)"""), Regex("""(?<id>\w+)"""))
+        val matcher = TextVariationMatcher(patterns, CommandPath.of("test"))
+
+        val match = matcher.match("abc")
+        assertEquals(1, match?.variationIndex)
+        assertEquals(0, match?.firstGroup)
+        assertEquals("abc", match?.matchResult?.groups?.get("id")?.value)
+    }
+
+    // Variation index and group values of the variation, using the combined pattern
+    private fun matchCombined(input: String): Pair<Int, List<String?>>? {
+        val match = matcher.match(input) ?: return null
+        val groupCount = patterns[match.variationIndex]!!.toPattern().matcher("").groupCount()
+        val groups = match.matchResult.groups
+        return match.variationIndex to (1..groupCount).map { groups[match.firstGroup + it]?.value }
+    }
+
+    // Variation index and group values of the variation, trying each pattern in order
+    private fun matchSeparately(input: String): Pair<Int, List<String?>>? {
+        patterns.forEachIndexed { index, pattern ->
+            val matchResult = pattern?.matchEntire(input) ?: return@forEachIndexed
+            return index to matchResult.groups.drop(1).map { it?.value }
+        }
+        return null
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.freya022.botcommands.othertests
+
+import io.github.freya022.botcommands.internal.utils.TimingWheel
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.runBlocking
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.TimeSource
+
+object TimingWheelTest {
+    @Test
+    fun `timeouts longer than one rotation`() {
+        // 4 buckets of 10 ms, all timeouts land in the same bucket, on different rotations
+        val delays = mapOf(1 to 15.milliseconds, 2 to 55.milliseconds, 3 to 95.milliseconds)
+        val expirations = runWheel { wheel ->
+            delays.forEach { (key, delay) -> wheel.schedule(key, delay, key) }
+        }
+
+        assertEquals(delays.keys, expirations.keys)
+        delays.forEach { (key, delay) ->
+            assertTrue(expirations.getValue(key) >= delay, "Timeout $key expired after ${expirations[key]}, expected $delay")
+        }
+    }
+
+    @Test
+    fun `cancelled and replaced timeouts`() {
+        val expirations = runWheel { wheel ->
+            wheel.schedule(1, 15.milliseconds, 1)
+            wheel.schedule(2, 15.milliseconds, 2)
+            wheel.schedule(2, 55.milliseconds, 2)
+            wheel.schedule(3, 15.milliseconds, 3)
+
+            assertEquals(3, wheel.cancel(3))
+            assertNull(wheel.cancel(3))
+        }
+
+        assertEquals(setOf(1, 2), expirations.keys)
+        assertTrue(expirations.getValue(2) >= 55.milliseconds, "Replaced timeout expired after ${expirations[2]}")
+    }
+
+    /**
+     * Returns when all timeouts expired, with the time at which each key expired.
+     */
+    private fun runWheel(block: (TimingWheel<Int>) -> Unit): Map<Int, Duration> {
+        val expirations = ConcurrentHashMap<Int, Duration>()
+        runBlocking {
+            val start = TimeSource.Monotonic.markNow()
+            // The wheel stops ticking once empty, letting the scope complete
+            coroutineScope {
+                val wheel = TimingWheel<Int>(this, tickDuration = 10.milliseconds, wheelSize = 4) { expired ->
+                    val elapsed = start.elapsedNow()
+                    expired.keys().forEach { expirations[it] = elapsed }
+                }
+                block(wheel)
+            }
+        }
+        return expirations
+    }
+}